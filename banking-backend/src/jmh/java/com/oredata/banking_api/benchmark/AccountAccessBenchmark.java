@@ -0,0 +1,67 @@
+package com.oredata.banking_api.benchmark;
+
+import com.oredata.banking_api.dto.responseDto.AccountResponseDto;
+import com.oredata.banking_api.mapper.AccountMapper;
+import com.oredata.banking_api.service.AccountService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Owner-checked account reads as the account endpoints serve them: service call plus
+ * mapping to the response DTO, in one session per call (open-in-view).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountAccessBenchmark {
+
+    private AccountService accountService;
+    private AccountMapper accountMapper;
+    private TransactionTemplate session;
+    private UUID accountId;
+    private UUID userId;
+
+    @Setup(Level.Trial)
+    public void setUp(BankingContextState state) {
+        accountService = state.getBean(AccountService.class);
+        accountMapper = state.getBean(AccountMapper.class);
+        session = new TransactionTemplate(state.getBean(PlatformTransactionManager.class));
+        session.setReadOnly(true);
+        accountId = state.source.getId();
+        userId = state.user.getId();
+
+        // Ownership is checked against the authenticated user (thread-local context)
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(BankingContextState.USERNAME, null, List.of()));
+    }
+
+    @Benchmark
+    public AccountResponseDto getAccount() {
+        return session.execute(status -> accountMapper.toDto(accountService.getAccountById(accountId)));
+    }
+
+    @Benchmark
+    public List<AccountResponseDto> getUserAccounts() {
+        return session.execute(status -> accountMapper.toDtoList(accountService.getAccountsByUserId(userId)));
+    }
+}
@@ -0,0 +1,57 @@
+package com.oredata.banking_api.benchmark;
+
+import com.oredata.banking_api.dto.requestDto.AccountDto;
+import com.oredata.banking_api.model.entity.Account;
+import com.oredata.banking_api.service.AccountService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk onboarding: account creation throughput, including the account number
+ * assignment. The table keeps growing during the run.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountCreationBenchmark {
+
+    private AccountService accountService;
+    private AccountDto request;
+
+    @Setup(Level.Trial)
+    public void setUp(BankingContextState state) {
+        accountService = state.getBean(AccountService.class);
+
+        request = new AccountDto();
+        request.setUserId(state.user.getId());
+        request.setName("Onboarded Account");
+        request.setBalance(BigDecimal.ZERO);
+
+        // createAccount only opens accounts for the authenticated user (thread-local context)
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(BankingContextState.USERNAME, null, List.of()));
+    }
+
+    @Benchmark
+    public Account createAccount() {
+        return accountService.createAccount(request);
+    }
+}
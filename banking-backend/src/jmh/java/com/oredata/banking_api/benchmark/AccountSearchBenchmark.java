@@ -0,0 +1,92 @@
+package com.oredata.banking_api.benchmark;
+
+import com.oredata.banking_api.model.entity.Account;
+import com.oredata.banking_api.model.entity.User;
+import com.oredata.banking_api.repository.AccountRepository;
+import com.oredata.banking_api.repository.UserRepository;
+import com.oredata.banking_api.service.AccountService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Searching the bench user's accounts while the rest of the accounts table
+ * (other users) grows. Latency should follow the user's accounts only.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountSearchBenchmark {
+
+    private static final int OWN_ACCOUNTS = 50;
+
+    @Param({ "1000", "50000" })
+    private int otherAccounts;
+
+    private AccountService accountService;
+
+    @Setup(Level.Trial)
+    public void setUp(BankingContextState state) {
+        accountService = state.getBean(AccountService.class);
+        AccountRepository accountRepository = state.getBean(AccountRepository.class);
+
+        User other = state.getBean(UserRepository.class).save(User.builder()
+                .username("other-user")
+                .password("not-used")
+                .email("other@oredata.com")
+                .build());
+
+        List<Account> accounts = new ArrayList<>(otherAccounts + OWN_ACCOUNTS);
+        for (int i = 0; i < otherAccounts; i++) {
+            accounts.add(account(other, "Savings 100% " + i, String.format("2%09d", i)));
+        }
+        for (int i = 0; i < OWN_ACCOUNTS; i++) {
+            accounts.add(account(state.user, "Savings 100% " + i, String.format("3%09d", i)));
+        }
+        accountRepository.saveAll(accounts);
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(BankingContextState.USERNAME, null, List.of()));
+        if (accountService.searchAccounts("100%").size() != 20 || !accountService.searchAccounts("10_").isEmpty()) {
+            throw new IllegalStateException("Unexpected search results");
+        }
+    }
+
+    @Benchmark
+    public List<Account> searchByName() {
+        return accountService.searchAccounts("savings 1");
+    }
+
+    @Benchmark
+    public List<Account> searchByNumber() {
+        return accountService.searchAccounts("300000004");
+    }
+
+    private static Account account(User user, String name, String number) {
+        return Account.builder()
+                .user(user)
+                .name(name)
+                .number(number)
+                .balance(BigDecimal.ZERO)
+                .build();
+    }
+}
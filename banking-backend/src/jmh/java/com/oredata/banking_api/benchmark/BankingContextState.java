@@ -0,0 +1,97 @@
+package com.oredata.banking_api.benchmark;
+
+import com.oredata.banking_api.BankingApiApplication;
+import com.oredata.banking_api.model.entity.Account;
+import com.oredata.banking_api.model.entity.User;
+import com.oredata.banking_api.repository.AccountRepository;
+import com.oredata.banking_api.repository.UserRepository;
+import com.oredata.banking_api.service.impl.AccountDirectory;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Boots the whole application once per trial against the embedded H2 database
+ * ("bench" profile) and seeds one user with two well-funded accounts.
+ */
+@State(Scope.Benchmark)
+public class BankingContextState {
+
+    public static final String USERNAME = "bench-user";
+
+    // Large enough that withdrawals and transfers never run dry during a trial
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000000000000.00");
+
+    // Compare the two transaction paths with "-p ledgerEngine=false,true"
+    @Param({"false"})
+    public boolean ledgerEngine;
+
+    public ConfigurableApplicationContext context;
+    public User user;
+    public Account source;
+    public Account target;
+    private Path journalDir;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        // Fresh async transfer journal per trial, nothing to replay from an earlier run
+        journalDir = Files.createTempDirectory("transfer-journal");
+        context = new SpringApplicationBuilder(BankingApiApplication.class)
+                .profiles("bench")
+                .run(arguments());
+
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        AccountRepository accountRepository = context.getBean(AccountRepository.class);
+
+        user = userRepository.save(User.builder()
+                .username(USERNAME)
+                .password("not-used")
+                .email("bench@oredata.com")
+                .build());
+
+        source = accountRepository.save(newAccount("1000000001", "Bench Source"));
+        target = accountRepository.save(newAccount("1000000002", "Bench Target"));
+
+        // Saved past AccountService, so registered by hand (as createAccount does)
+        AccountDirectory accountDirectory = context.getBean(AccountDirectory.class);
+        accountDirectory.add(source.getNumber(), source.getId(), user.getId());
+        accountDirectory.add(target.getNumber(), target.getId(), user.getId());
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    // Command line arguments, they override application.properties and the "bench" profile
+    // (see WebContextState)
+    protected String[] arguments() {
+        return new String[] {
+                "--banking.ledger.engine.enabled=" + ledgerEngine,
+                "--banking.transfer-intake.journal-dir=" + journalDir
+        };
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    private Account newAccount(String number, String name) {
+        return Account.builder()
+                .number(number)
+                .name(name)
+                .balance(OPENING_BALANCE)
+                .user(user)
+                .build();
+    }
+}
@@ -0,0 +1,68 @@
+package com.oredata.banking_api.benchmark;
+
+import com.oredata.banking_api.model.entity.Transaction;
+import com.oredata.banking_api.service.TransactionService;
+import com.oredata.banking_api.service.impl.StripedBalances;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Many threads writing to the same account, the case the optimistic-lock retry
+ * layer exists for. Requests that still fail after all retries (HTTP 409) are
+ * counted as completed operations, so compare with the conflict/retry meters.
+ * {@code stripes > 0} runs the same load against the account in hot account mode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class ContendedAccountBenchmark {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+    @Param({"0", "8"})
+    public int stripes;
+
+    private TransactionService transactionService;
+    private UUID hotAccountId;
+
+    @Setup(Level.Trial)
+    public void setUp(BankingContextState state) {
+        transactionService = state.getBean(TransactionService.class);
+        hotAccountId = state.target.getId();
+        if (stripes > 0) {
+            new TransactionTemplate(state.getBean(PlatformTransactionManager.class)).executeWithoutResult(
+                    status -> state.getBean(StripedBalances.class).promote(hotAccountId, stripes));
+        }
+    }
+
+    @Benchmark
+    public Transaction depositToHotAccount() {
+        try {
+            return transactionService.deposit(hotAccountId, AMOUNT);
+        } catch (ConcurrencyFailureException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.oredata.banking_api.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full HTTP round trips (JWT filter, controller, JDBC) at high concurrency,
+ * platform-thread vs virtual-thread request handling. SampleTime reports the
+ * p99 next to the mean; throughput is threads / mean.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(64)
+public class HttpRequestBenchmark {
+
+    private HttpClient client;
+    private HttpRequest getAccount;
+    private HttpRequest deposit;
+
+    @Setup(Level.Trial)
+    public void setUp(WebContextState state) {
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        getAccount = HttpRequest.newBuilder(state.uri("/api/accounts/" + state.source.getId()))
+                .header("Authorization", state.bearerToken)
+                .GET()
+                .build();
+        deposit = HttpRequest.newBuilder(state.uri("/api/transactions/deposit?accountId=" + state.source.getId() + "&amount=1"))
+                .header("Authorization", state.bearerToken)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+    }
+
+    @Benchmark
+    public int getAccount() throws IOException, InterruptedException {
+        return send(getAccount);
+    }
+
+    @Benchmark
+    public int deposit() throws IOException, InterruptedException {
+        return send(deposit);
+    }
+
+    private int send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("HTTP " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
@@ -0,0 +1,85 @@
+package com.oredata.banking_api.benchmark;
+
+import com.oredata.banking_api.dto.responseDto.TransactionResponseDto;
+import com.oredata.banking_api.mapper.TransactionMapper;
+import com.oredata.banking_api.model.entity.Transaction;
+import com.oredata.banking_api.service.IdempotencyService;
+import com.oredata.banking_api.service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Client retries with an Idempotency-Key: a deposit with a new key (claim before the operation,
+ * response stored in its transaction) and a repeated key (answered from the cache) against a plain deposit.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdempotencyBenchmark {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+    private IdempotencyService idempotencyService;
+    private Supplier<Transaction> deposit;
+    private Supplier<TransactionResponseDto> plainDeposit;
+    private String request;
+    private String repeatedKey;
+
+    @Setup(Level.Trial)
+    public void setUp(BankingContextState state) {
+        TransactionService transactionService = state.getBean(TransactionService.class);
+        TransactionMapper transactionMapper = state.getBean(TransactionMapper.class);
+        idempotencyService = state.getBean(IdempotencyService.class);
+
+        UUID accountId = state.target.getId();
+        // The transaction stands in for the request's open session (open-in-view) the mapper relies on
+        TransactionTemplate session = new TransactionTemplate(state.getBean(PlatformTransactionManager.class));
+        deposit = () -> transactionService.deposit(accountId, AMOUNT);
+        plainDeposit = () -> session.execute(status -> transactionMapper.toDto(deposit.get()));
+        request = accountId + "|" + AMOUNT + "|";
+
+        // Keys are per user (thread-local context)
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(BankingContextState.USERNAME, null, List.of()));
+
+        repeatedKey = UUID.randomUUID().toString();
+        idempotencyService.execute(repeatedKey, "deposit", request, deposit);
+    }
+
+    @Benchmark
+    public TransactionResponseDto deposit() {
+        return plainDeposit.get();
+    }
+
+    @Benchmark
+    public TransactionResponseDto depositWithNewKey() {
+        return idempotencyService.execute(UUID.randomUUID().toString(), "deposit", request, deposit);
+    }
+
+    @Benchmark
+    public TransactionResponseDto repeatedKey() {
+        return idempotencyService.execute(repeatedKey, "deposit", request, deposit);
+    }
+}
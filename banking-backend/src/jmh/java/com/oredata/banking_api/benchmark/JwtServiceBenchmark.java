@@ -0,0 +1,58 @@
+package com.oredata.banking_api.benchmark;
+
+import com.oredata.banking_api.config.security.JwtService;
+import com.oredata.banking_api.model.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token parsing and validation in isolation (no Spring context, no database).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    // Same default as application.properties
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private JwtService jwtService;
+    private User user;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtService = new JwtService(SECRET, 10_000);
+
+        user = User.builder()
+                .username(BankingContextState.USERNAME)
+                .password("not-used")
+                .email("bench@oredata.com")
+                .build();
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtService.extractUsername(token);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtService.isTokenValid(token, user);
+    }
+}
@@ -0,0 +1,85 @@
+package com.oredata.banking_api.benchmark;
+
+import com.oredata.banking_api.model.entity.User;
+import com.oredata.banking_api.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A login storm (many clients posting credentials, each a BCrypt check) next to
+ * regular account reads over HTTP. Reports the latency of both; the account reads
+ * are what must not starve. Refused logins (503) count as answered.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LoginStormBenchmark {
+
+    private static final String PASSWORD = "bench-password";
+
+    private HttpClient client;
+    private HttpRequest login;
+    private HttpRequest getAccount;
+
+    @Setup(Level.Trial)
+    public void setUp(WebContextState state) {
+        UserRepository userRepository = state.getBean(UserRepository.class);
+        User user = userRepository.findByUsername(BankingContextState.USERNAME).orElseThrow();
+        user.setPassword(state.getBean(PasswordEncoder.class).encode(PASSWORD));
+        userRepository.save(user);
+
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        login = HttpRequest.newBuilder(state.uri("/api/users/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"username\":\"" + BankingContextState.USERNAME + "\",\"password\":\"" + PASSWORD + "\"}"))
+                .build();
+        getAccount = HttpRequest.newBuilder(state.uri("/api/accounts/" + state.source.getId()))
+                .header("Authorization", state.bearerToken)
+                .GET()
+                .build();
+    }
+
+    @Benchmark
+    @Group("storm")
+    @GroupThreads(16)
+    public int login() throws IOException, InterruptedException {
+        int status = client.send(login, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 200 && status != 503) {
+            throw new IllegalStateException("HTTP " + status);
+        }
+        return status;
+    }
+
+    @Benchmark
+    @Group("storm")
+    @GroupThreads(2)
+    public int getAccount() throws IOException, InterruptedException {
+        int status = client.send(getAccount, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 200) {
+            throw new IllegalStateException("HTTP " + status);
+        }
+        return status;
+    }
+}
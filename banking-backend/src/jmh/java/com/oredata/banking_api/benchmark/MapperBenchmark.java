@@ -0,0 +1,95 @@
+package com.oredata.banking_api.benchmark;
+
+import com.oredata.banking_api.dto.responseDto.AccountResponseDto;
+import com.oredata.banking_api.dto.responseDto.TransactionResponseDto;
+import com.oredata.banking_api.mapper.AccountMapper;
+import com.oredata.banking_api.mapper.TransactionMapper;
+import com.oredata.banking_api.model.entity.Account;
+import com.oredata.banking_api.model.entity.Transaction;
+import com.oredata.banking_api.model.entity.User;
+import com.oredata.banking_api.model.entity.enums.TransactionStatus;
+import com.oredata.banking_api.model.entity.enums.TransactionType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO list conversion on detached, fully initialized entities.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({ "10", "1000" })
+    private int size;
+
+    private final TransactionMapper transactionMapper = new TransactionMapper();
+    private final AccountMapper accountMapper = new AccountMapper();
+
+    private List<Transaction> transactions;
+    private List<Account> accounts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        User user = User.builder()
+                .id(UUID.randomUUID())
+                .username(BankingContextState.USERNAME)
+                .email("bench@oredata.com")
+                .build();
+
+        accounts = new ArrayList<>(size);
+        transactions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Account account = Account.builder()
+                    .id(UUID.randomUUID())
+                    .number(String.valueOf(1_000_000_000L + i))
+                    .name("Account " + i)
+                    .balance(BigDecimal.valueOf(i, 2))
+                    .user(user)
+                    .build();
+            account.setCreatedAt(LocalDateTime.now());
+            accounts.add(account);
+        }
+        for (int i = 0; i < size; i++) {
+            transactions.add(Transaction.builder()
+                    .id((long) i)
+                    .from(accounts.get(i))
+                    .to(accounts.get((i + 1) % size))
+                    .amount(BigDecimal.valueOf(i, 2))
+                    .transactionDate(LocalDateTime.now())
+                    .type(TransactionType.TRANSFER)
+                    .status(TransactionStatus.SUCCESS)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public List<TransactionResponseDto> transactionToDtoList() {
+        return transactionMapper.toDtoList(transactions);
+    }
+
+    @Benchmark
+    public List<AccountResponseDto> accountToDtoList() {
+        return accountMapper.toDtoList(accounts);
+    }
+}
@@ -0,0 +1,68 @@
+package com.oredata.banking_api.benchmark;
+
+import com.oredata.banking_api.dto.requestDto.LoginRequestDto;
+import com.oredata.banking_api.dto.requestDto.RefreshTokenRequestDto;
+import com.oredata.banking_api.dto.responseDto.LoginResponseDto;
+import com.oredata.banking_api.model.entity.User;
+import com.oredata.banking_api.repository.UserRepository;
+import com.oredata.banking_api.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Getting a new access token: logging in again (password check) against exchanging
+ * the refresh token (rotated on every call, so each call uses the previous result).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SessionRenewalBenchmark {
+
+    private static final String PASSWORD = "bench-password";
+
+    private UserService userService;
+    private LoginRequestDto credentials;
+    private RefreshTokenRequestDto refresh;
+
+    @Setup(Level.Trial)
+    public void setUp(BankingContextState state) {
+        UserRepository userRepository = state.getBean(UserRepository.class);
+        User user = userRepository.findByUsername(BankingContextState.USERNAME).orElseThrow();
+        user.setPassword(state.getBean(PasswordEncoder.class).encode(PASSWORD));
+        userRepository.save(user);
+
+        userService = state.getBean(UserService.class);
+        credentials = new LoginRequestDto();
+        credentials.setUsername(BankingContextState.USERNAME);
+        credentials.setPassword(PASSWORD);
+        refresh = new RefreshTokenRequestDto();
+        refresh.setRefreshToken(userService.login(credentials).getRefreshToken());
+    }
+
+    @Benchmark
+    public LoginResponseDto login() {
+        return userService.login(credentials);
+    }
+
+    @Benchmark
+    public LoginResponseDto refresh() {
+        LoginResponseDto renewed = userService.refresh(refresh);
+        refresh.setRefreshToken(renewed.getRefreshToken());
+        return renewed;
+    }
+}
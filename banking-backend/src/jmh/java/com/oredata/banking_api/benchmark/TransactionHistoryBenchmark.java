@@ -0,0 +1,128 @@
+package com.oredata.banking_api.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oredata.banking_api.dto.requestDto.ExportFormat;
+import com.oredata.banking_api.dto.responseDto.TransactionResponseDto;
+import com.oredata.banking_api.mapper.TransactionExportWriter;
+import com.oredata.banking_api.model.entity.Account;
+import com.oredata.banking_api.model.entity.Transaction;
+import com.oredata.banking_api.model.entity.enums.TransactionStatus;
+import com.oredata.banking_api.model.entity.enums.TransactionType;
+import com.oredata.banking_api.repository.AccountPostingRepository;
+import com.oredata.banking_api.repository.AccountRepository;
+import com.oredata.banking_api.repository.TransactionRepository;
+import com.oredata.banking_api.service.TransactionService;
+import com.oredata.banking_api.service.impl.AccountPostingBackfill;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading the newest page of an account's history versus loading all of it,
+ * and streaming all of it as NDJSON, for growing history lengths. Each read
+ * runs in its own session, as a request does (open-in-view).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionHistoryBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    // Distinct accounts on the other side of the history rows
+    private static final int COUNTERPARTIES = 100;
+
+    @Param({ "1000", "10000" })
+    private int historyLength;
+
+    private TransactionService transactionService;
+    private ObjectMapper objectMapper;
+    private UUID accountId;
+    private TransactionTemplate session;
+
+    @Setup(Level.Trial)
+    public void setUp(BankingContextState state) {
+        transactionService = state.getBean(TransactionService.class);
+        objectMapper = state.getBean(ObjectMapper.class);
+        accountId = state.source.getId();
+        // Stands in for the request's open session (open-in-view)
+        session = new TransactionTemplate(state.getBean(PlatformTransactionManager.class));
+        session.setReadOnly(true);
+
+        List<Account> counterparties = new ArrayList<>(COUNTERPARTIES);
+        for (int i = 0; i < COUNTERPARTIES; i++) {
+            counterparties.add(Account.builder()
+                    .number(String.format("2%09d", i))
+                    .name("Counterparty " + i)
+                    .balance(BigDecimal.ZERO)
+                    .user(state.user)
+                    .build());
+        }
+        counterparties = state.getBean(AccountRepository.class).saveAll(counterparties);
+
+        LocalDateTime start = LocalDateTime.now().minusDays(historyLength);
+        List<Transaction> history = new ArrayList<>(historyLength);
+        for (int i = 0; i < historyLength; i++) {
+            boolean outgoing = i % 2 == 0;
+            Account counterparty = counterparties.get(i % COUNTERPARTIES);
+            history.add(Transaction.builder()
+                    .from(outgoing ? state.source : counterparty)
+                    .to(outgoing ? counterparty : state.source)
+                    .amount(BigDecimal.ONE)
+                    .transactionDate(start.plusMinutes(i))
+                    .type(TransactionType.TRANSFER)
+                    .status(TransactionStatus.SUCCESS)
+                    .build());
+        }
+        state.getBean(TransactionRepository.class).saveAll(history);
+
+        // History is read from account_postings: create them the way an upgrade would
+        new AccountPostingBackfill(state.getBean(TransactionRepository.class),
+                state.getBean(AccountPostingRepository.class),
+                state.getBean(PlatformTransactionManager.class), 1000).run();
+        if (transactionService.getAccountHistory(accountId).size() != historyLength) {
+            throw new IllegalStateException("Postings backfill incomplete");
+        }
+    }
+
+    @Benchmark
+    public List<TransactionResponseDto> fullHistory() {
+        return session.execute(status -> transactionService.getAccountHistory(accountId));
+    }
+
+    @Benchmark
+    public List<TransactionResponseDto> firstPage() {
+        return session.execute(
+                status -> transactionService.getAccountHistoryPage(accountId, null, PAGE_SIZE).getContent());
+    }
+
+    @Benchmark
+    public void exportNdjson() throws IOException {
+        try (TransactionExportWriter writer = new TransactionExportWriter(
+                ExportFormat.NDJSON, OutputStream.nullOutputStream(), objectMapper)) {
+            transactionService.exportAccountHistory(accountId, writer::write);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.oredata.banking_api.benchmark;
+
+import com.oredata.banking_api.dto.requestDto.TransactionDto;
+import com.oredata.banking_api.model.BatchTransferResult;
+import com.oredata.banking_api.model.entity.Transaction;
+import com.oredata.banking_api.service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Money-moving service methods, end to end through JPA against the embedded database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionServiceBenchmark {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+    private static final int BATCH_SIZE = 100;
+
+    private TransactionService transactionService;
+    private TransactionDto transfer;
+    private List<TransactionDto> batch;
+    private BankingContextState state;
+
+    @Setup(Level.Trial)
+    public void setUp(BankingContextState state) {
+        this.state = state;
+        this.transactionService = state.getBean(TransactionService.class);
+
+        transfer = new TransactionDto();
+        transfer.setSourceAccountId(state.source.getId());
+        transfer.setTargetAccountId(state.target.getId());
+        transfer.setAmount(AMOUNT);
+        batch = Collections.nCopies(BATCH_SIZE, transfer);
+    }
+
+    @Benchmark
+    public Transaction transferFunds() {
+        return transactionService.transferFunds(transfer);
+    }
+
+    // Reported per transfer, so it compares directly with transferFunds.
+    // The ledger engine only takes continueOnError batches, the database path runs all-or-nothing.
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<BatchTransferResult> transferBatch() {
+        return transactionService.transferBatch(batch, state.ledgerEngine);
+    }
+
+    @Benchmark
+    public Transaction deposit() {
+        return transactionService.deposit(state.target.getId(), AMOUNT);
+    }
+
+    @Benchmark
+    public Transaction withdraw() {
+        return transactionService.withdraw(state.source.getId(), AMOUNT);
+    }
+}
@@ -0,0 +1,67 @@
+package com.oredata.banking_api.benchmark;
+
+import com.oredata.banking_api.dto.requestDto.TransactionDto;
+import com.oredata.banking_api.exception.ResourceNotFoundException;
+import com.oredata.banking_api.model.entity.Transaction;
+import com.oredata.banking_api.service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transfers addressed by account number (the TransferPage form): a known
+ * receiver, and a mistyped number that passes the format check but belongs to
+ * no account (one indexed lookup, none with banking.account-directory.single-node=true).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransferByNumberBenchmark {
+
+    private TransactionService transactionService;
+    private TransactionDto knownReceiver;
+    private TransactionDto unknownReceiver;
+
+    @Setup(Level.Trial)
+    public void setUp(BankingContextState state) {
+        transactionService = state.getBean(TransactionService.class);
+        knownReceiver = transfer(state, state.target.getNumber());
+        unknownReceiver = transfer(state, "1000000099");
+    }
+
+    @Benchmark
+    public Transaction knownNumber() {
+        return transactionService.transferFunds(knownReceiver);
+    }
+
+    @Benchmark
+    public Object unknownNumber() {
+        try {
+            return transactionService.transferFunds(unknownReceiver);
+        } catch (ResourceNotFoundException e) {
+            return e;
+        }
+    }
+
+    private static TransactionDto transfer(BankingContextState state, String targetNumber) {
+        TransactionDto dto = new TransactionDto();
+        dto.setSourceAccountId(state.source.getId());
+        dto.setTargetAccountNumber(targetNumber);
+        dto.setAmount(new BigDecimal("1.00"));
+        return dto;
+    }
+}
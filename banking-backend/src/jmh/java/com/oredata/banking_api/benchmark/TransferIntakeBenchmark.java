@@ -0,0 +1,66 @@
+package com.oredata.banking_api.benchmark;
+
+import com.oredata.banking_api.dto.requestDto.TransactionDto;
+import com.oredata.banking_api.model.entity.Transaction;
+import com.oredata.banking_api.service.TransactionService;
+import com.oredata.banking_api.service.TransferIntakeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time until the client gets its answer: synchronous transfer (committed) versus
+ * async intake (journaled, applied in the background by the intake worker).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransferIntakeBenchmark {
+
+    private TransactionService transactionService;
+    private TransferIntakeService transferIntakeService;
+    private TransactionDto transfer;
+
+    @Setup(Level.Trial)
+    public void setUp(BankingContextState state) {
+        transactionService = state.getBean(TransactionService.class);
+        transferIntakeService = state.getBean(TransferIntakeService.class);
+
+        transfer = new TransactionDto();
+        transfer.setSourceAccountId(state.source.getId());
+        transfer.setTargetAccountId(state.target.getId());
+        transfer.setAmount(new BigDecimal("1.00"));
+
+        // submit records the authenticated user as the owner of the transfer (thread-local context)
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(BankingContextState.USERNAME, null, List.of()));
+    }
+
+    @Benchmark
+    public Transaction transferFunds() {
+        return transactionService.transferFunds(transfer);
+    }
+
+    @Benchmark
+    public UUID submitTransfer() {
+        return transferIntakeService.submit(transfer);
+    }
+}
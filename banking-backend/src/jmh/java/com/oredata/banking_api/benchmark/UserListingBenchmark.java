@@ -0,0 +1,83 @@
+package com.oredata.banking_api.benchmark;
+
+import com.oredata.banking_api.dto.responseDto.RegisterResponseDto;
+import com.oredata.banking_api.mapper.UserMapper;
+import com.oredata.banking_api.model.entity.User;
+import com.oredata.banking_api.repository.UserRepository;
+import com.oredata.banking_api.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.domain.Slice;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * User listing with many users: every entity loaded and mapped (the former
+ * GET /api/users), against a keyset page and the streamed full listing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserListingBenchmark {
+
+    private static final int USERS = 20_000;
+
+    private UserService userService;
+    private UserRepository userRepository;
+    private UserMapper userMapper;
+    private TransactionTemplate session;
+
+    @Setup(Level.Trial)
+    public void setUp(BankingContextState state) {
+        userService = state.getBean(UserService.class);
+        userRepository = state.getBean(UserRepository.class);
+        userMapper = state.getBean(UserMapper.class);
+        // Stands in for the request's open session (open-in-view)
+        session = new TransactionTemplate(state.getBean(PlatformTransactionManager.class));
+        session.setReadOnly(true);
+
+        List<User> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            users.add(User.builder()
+                    .username(String.format("user-%05d", i))
+                    .password("not-used")
+                    .email(String.format("user-%05d@oredata.com", i))
+                    .build());
+        }
+        userRepository.saveAll(users);
+    }
+
+    @Benchmark
+    public List<RegisterResponseDto> allEntities() {
+        return session.execute(status -> userRepository.findAll().stream()
+                .map(userMapper::toRegisterResponseDto)
+                .toList());
+    }
+
+    @Benchmark
+    public Slice<RegisterResponseDto> firstPage() {
+        return userService.getUsersPage(null, 20);
+    }
+
+    @Benchmark
+    public void streamAll(Blackhole blackhole) {
+        userService.exportUsers(blackhole::consume);
+    }
+}
@@ -0,0 +1,44 @@
+package com.oredata.banking_api.benchmark;
+
+import com.oredata.banking_api.config.security.JwtService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+/**
+ * {@link BankingContextState} with the embedded Tomcat running on a random port,
+ * plus a bearer token for the bench user.
+ */
+@State(Scope.Benchmark)
+public class WebContextState extends BankingContextState {
+
+    // true needs Java 21+, on older runtimes Spring Boot ignores the property
+    @Param({ "false", "true" })
+    public boolean virtualThreads;
+
+    public String bearerToken;
+
+    @Setup(Level.Trial)
+    public void login() {
+        bearerToken = "Bearer " + getBean(JwtService.class).generateToken(user);
+    }
+
+    public URI uri(String path) {
+        return URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port") + path);
+    }
+
+    @Override
+    protected String[] arguments() {
+        return Stream.concat(Arrays.stream(super.arguments()), Stream.of(
+                "--spring.main.web-application-type=servlet",
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads))
+                .toArray(String[]::new);
+    }
+}
@@ -1,22 +1,34 @@
 package com.oredata.banking_api.config;
 
+import com.oredata.banking_api.config.security.BoundedPasswordEncoder;
+import com.oredata.banking_api.config.security.UserDetailsCache;
+import com.oredata.banking_api.model.entity.User;
 import com.oredata.banking_api.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.LocalDateTime;
+import java.util.Map;
+
 @Configuration
 @RequiredArgsConstructor
 public class ApplicationConfig {
 
+    private static final String BCRYPT = "bcrypt";
+
     private final UserRepository userRepository;
 
     @Bean
@@ -25,14 +37,28 @@ public class ApplicationConfig {
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
 
+    // Upgrade on login: after a successful login whose stored hash is outdated (older format or
+    // lower BCrypt strength), DaoAuthenticationProvider re-hashes the password and stores it here
+    @Bean
+    public UserDetailsPasswordService userDetailsPasswordService(UserDetailsCache userDetailsCache) {
+        return (user, newPassword) -> {
+            userRepository.updatePassword(user.getUsername(), newPassword, LocalDateTime.now());
+            userDetailsCache.evict(user.getUsername());
+            ((User) user).setPassword(newPassword);
+            return user;
+        };
+    }
+
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder,
+            UserDetailsPasswordService userDetailsPasswordService) {
         // CHANGE HERE:
         // Using userDetailsService() inside parenthesis instead of new
         // DaoAuthenticationProvider()
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService());
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService);
         return authProvider;
     }
 
@@ -41,8 +67,19 @@ public class ApplicationConfig {
         return config.getAuthenticationManager();
     }
 
+    // New hashes are stored as {bcrypt}<hash> at the configured strength; hashes without a prefix
+    // (written before) still match as BCrypt and are upgraded on the next login.
+    // Raising the strength therefore needs no password reset.
+    // Threads 0 = half the CPUs (at least one).
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+            @Value("${security.password-hashing.bcrypt-strength:10}") int strength,
+            @Value("${security.password-hashing.threads:0}") int threads,
+            @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity) {
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(BCRYPT,
+                Map.of(BCRYPT, new BCryptPasswordEncoder(strength)));
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(encoder, poolSize, queueCapacity, meterRegistry);
     }
-}
\ No newline at end of file
+}
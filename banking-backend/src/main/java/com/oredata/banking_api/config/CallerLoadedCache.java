@@ -0,0 +1,42 @@
+package com.oredata.banking_api.config;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+// Atomic cache loads that run the loader on the calling thread, outside any lock.
+// The cache maps the key to an incomplete future (inside Caffeine's compute, nothing blocks there) and
+// the caller that installed it loads and completes it; concurrent callers wait on the same future.
+// An invalidate or put during the load replaces the future, and the loaded value is not cached: a load
+// that started before an eviction can never put stale data back. A failed load is not cached either.
+// Used instead of Cache.get(key, loader) where the loader does JDBC: that runs under a map bin lock,
+// which pins a virtual thread to its carrier.
+public final class CallerLoadedCache {
+
+    private CallerLoadedCache() {
+    }
+
+    public static <K, V> V get(AsyncCache<K, V> cache, K key, Function<K, V> loader) {
+        CompletableFuture<V> loading = new CompletableFuture<>();
+        CompletableFuture<V> current = cache.get(key, (k, executor) -> loading);
+        if (current == loading) {
+            try {
+                loading.complete(loader.apply(key));
+            } catch (RuntimeException | Error e) {
+                loading.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return current.join();
+        } catch (CompletionException e) {
+            // Another caller's load failed: rethrow its exception as is (e.g. UsernameNotFoundException)
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.oredata.banking_api.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Open-in-view, as Spring Boot would register it (the mappers rely on lazy loading in the
+// controllers), except for login and registration: the open EntityManager keeps its JDBC connection
+// from the first query until the response is written, and these requests spend most of their time
+// hashing the password. Without it the user lookup/insert returns the connection right away
+// instead of holding a pool slot through BCrypt (a login storm would otherwise drain the pool).
+@Configuration
+@ConditionalOnProperty(prefix = "spring.jpa", name = "open-in-view", havingValue = "true", matchIfMissing = true)
+public class WebConfig implements WebMvcConfigurer {
+
+    // Replaces Spring Boot's own interceptor (it backs off when this bean exists)
+    @Bean
+    public OpenEntityManagerInViewInterceptor openEntityManagerInViewInterceptor() {
+        return new OpenEntityManagerInViewInterceptor();
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addWebRequestInterceptor(openEntityManagerInViewInterceptor())
+                .excludePathPatterns("/api/users/login", "/api/users/register");
+    }
+}
@@ -0,0 +1,81 @@
+package com.oredata.banking_api.config.security;
+
+import com.oredata.banking_api.exception.ServiceBusyException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs password hashing (BCrypt, slow by design) on a small dedicated pool: at most `threads`
+// hashes at once and `queueCapacity` waiting. A login storm then uses a bounded share of the CPU,
+// account and transfer requests keep the rest. Beyond the queue a login/registration is refused
+// right away (ServiceBusyException -> 503) instead of piling up on request threads.
+// Executor metrics (queued, active, completed) are tagged name=passwordHashing.
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity,
+            MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "password-hashing-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "passwordHashing");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    // Only looks at the stored hash, no hashing
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Callable<T> hashing) {
+        try {
+            return executor.submit(hashing).get();
+        } catch (RejectedExecutionException e) {
+            throw busy();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw busy();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static ServiceBusyException busy() {
+        return new ServiceBusyException("Too many logins in progress. Please try again.");
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
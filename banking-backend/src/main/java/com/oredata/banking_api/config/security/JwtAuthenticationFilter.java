@@ -1,5 +1,9 @@
 package com.oredata.banking_api.config.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,7 +13,7 @@ import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -21,7 +25,8 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService; // We will define this service in the next step
+    private final UserDetailsCache userDetailsCache; // Cached principals, DB only on a miss
+    private final MeterRegistry meterRegistry;
 
     @Override
     protected void doFilterInternal(
@@ -41,16 +46,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             jwt = authHeader.substring(7); // Skip "Bearer " part (7 chars)
-            userEmail = jwtService.extractUsername(jwt); // Extract username from Token
+            Claims claims = jwtService.parseToken(jwt); // Verify once, reuse claims below
+            userEmail = claims.getSubject(); // Extract username from Token
 
             // If username exists but not authenticated in context yet
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-                // Find user from DB
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+                // Find user (cache first, DB on a miss)
+                UserDetails userDetails = this.userDetailsCache.get(userEmail);
 
                 // Is Token valid?
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (jwtService.isTokenValid(claims, userDetails)) {
 
                     // If valid, tell Spring Security "This user is verified, let them in"
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
@@ -63,15 +69,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     SecurityContextHolder.getContext().setAuthentication(authToken);
                 }
             }
-            filterChain.doFilter(request, response);
-        } catch (io.jsonwebtoken.ExpiredJwtException e) {
+        } catch (ExpiredJwtException e) {
+            meterRegistry.counter("banking.jwt.failures", "reason", "expired").increment();
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.setContentType("application/json");
             response.getWriter().write("{\"status\": 401, \"message\": \"Token expired\"}");
-        } catch (Exception e) {
+            return;
+        } catch (JwtException | IllegalArgumentException | UsernameNotFoundException e) {
+            // Tampered or malformed token (IllegalArgumentException: empty), or its user is gone
+            meterRegistry.counter("banking.jwt.failures", "reason", "invalid").increment();
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.setContentType("application/json");
             response.getWriter().write("{\"status\": 401, \"message\": \"Invalid token\"}");
+            return;
         }
+
+        // Outside the try: exceptions of the rest of the chain are not token failures
+        filterChain.doFilter(request, response);
     }
 }
\ No newline at end of file
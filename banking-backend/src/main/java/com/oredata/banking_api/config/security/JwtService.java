@@ -1,10 +1,15 @@
 package com.oredata.banking_api.config.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
@@ -12,13 +17,47 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
 
-    @org.springframework.beans.factory.annotation.Value("${jwt.secret}")
-    private String secretKey;
+    // Decoded once at startup instead of on every sign/verify
+    private final Key signInKey;
+
+    // JwtParser is immutable and thread-safe, so one instance serves all requests
+    private final JwtParser jwtParser;
+
+    // Already verified tokens -> their claims. Entries expire together with the token.
+    private final Cache<String, Claims> verifiedTokens;
+
+    public JwtService(@Value("${jwt.secret}") String secretKey,
+            @Value("${jwt.cache.max-size:10000}") long cacheMaxSize) {
+        this.signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signInKey)
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new TokenExpiry())
+                .build();
+    }
+
+    // Verifies the token once and returns its claims.
+    // Repeated calls with the same token skip the HMAC check until the token expires.
+    public Claims parseToken(String token) {
+        Claims claims = verifiedTokens.getIfPresent(token);
+        if (claims != null) {
+            return claims;
+        }
+        // Throws ExpiredJwtException / JwtException for expired or tampered tokens
+        claims = jwtParser.parseClaimsJws(token).getBody();
+        if (claims.getExpiration() != null) {
+            verifiedTokens.put(token, claims);
+        }
+        return claims;
+    }
 
     // Extracts Username from Token
     public String extractUsername(String token) {
@@ -26,8 +65,7 @@ public class JwtService {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(parseToken(token));
     }
 
     // Token Generation Method
@@ -36,40 +74,56 @@ public class JwtService {
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
+        return generateToken(extraClaims, userDetails.getUsername());
+    }
+
+    // For a username that is already authenticated otherwise (refresh token), no user load needed
+    public String generateToken(String username) {
+        return generateToken(new HashMap<>(), username);
+    }
+
+    private String generateToken(Map<String, Object> extraClaims, String username) {
         return Jwts.builder()
                 .setClaims(extraClaims)
-                .setSubject(userDetails.getUsername()) // Username
+                .setSubject(username) // Username
                 .setIssuedAt(new Date(System.currentTimeMillis())) // Creation time
                 .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 24)) // Valid for 24 minutes (Check
                                                                                       // requirement)
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256) // Signing
+                .signWith(signInKey, SignatureAlgorithm.HS256) // Signing
                 .compact();
     }
 
     // Is Token Valid?
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(parseToken(token), userDetails);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    // Same check on claims that were already parsed for this request
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && !isTokenExpired(claims);
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
+    // Keeps a cache entry only as long as the token itself is valid
+    private static class TokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String token, Claims claims, long currentTime) {
+            long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        @Override
+        public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,27 @@
+package com.oredata.banking_api.config.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+
+// Matches requests that arrived on the management server (management.server.port). The same filter
+// chain guards both ports, so the actuator endpoints are opened on that port only, never on the API port.
+@Component
+public class ManagementPortRequestMatcher implements RequestMatcher, ApplicationListener<WebServerInitializedEvent> {
+
+    private volatile int managementPort = -1; // No management server (yet): nothing matches
+
+    @Override
+    public void onApplicationEvent(WebServerInitializedEvent event) {
+        if ("management".equals(event.getApplicationContext().getServerNamespace())) {
+            managementPort = event.getWebServer().getPort();
+        }
+    }
+
+    @Override
+    public boolean matches(HttpServletRequest request) {
+        return request.getLocalPort() == managementPort;
+    }
+}
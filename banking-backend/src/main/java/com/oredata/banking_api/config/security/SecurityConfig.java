@@ -1,5 +1,6 @@
 package com.oredata.banking_api.config.security;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -24,6 +25,7 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthFilter;
     private final AuthenticationProvider authenticationProvider;
+    private final ManagementPortRequestMatcher managementPort;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -31,8 +33,9 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(AbstractHttpConfigurer::disable) // Disable CSRF protection
                 .authorizeHttpRequests(auth -> auth
-                        // PUBLIC ENDPOINTS (Login and Register)
-                        .requestMatchers("/api/users/register", "/api/users/login").permitAll()
+                        // PUBLIC ENDPOINTS (Login and Register; refresh/logout carry a refresh token instead)
+                        .requestMatchers("/api/users/register", "/api/users/login",
+                                "/api/users/refresh", "/api/users/logout").permitAll()
 
                         // Swagger Documentation (Keep open for testing)
                         .requestMatchers(
@@ -41,6 +44,11 @@ public class SecurityConfig {
                                 "/swagger-ui.html")
                         .permitAll()
                         .requestMatchers("/error").permitAll()
+                        // Streamed responses (StreamingResponseBody) finish in an async dispatch: the
+                        // request was authorized on the way in, the JWT filter does not run again
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        // Health checks and the Prometheus scrape, only on the management port (not published)
+                        .requestMatchers(managementPort).permitAll()
                         // TOKEN REQUIRED for everything else
                         .anyRequest().authenticated())
                 .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS)) // No Session
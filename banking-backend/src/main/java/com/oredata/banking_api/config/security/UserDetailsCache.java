@@ -0,0 +1,51 @@
+package com.oredata.banking_api.config.security;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.oredata.banking_api.config.CallerLoadedCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Short-lived cache of authenticated principals, keyed by username.
+// Lets JwtAuthenticationFilter authenticate a request without a DB round trip.
+// Login (DaoAuthenticationProvider) still reads the user from the DB.
+@Component
+public class UserDetailsCache {
+
+    private final UserDetailsService userDetailsService;
+    private final AsyncCache<String, UserDetails> principals;
+
+    public UserDetailsCache(UserDetailsService userDetailsService,
+            MeterRegistry meterRegistry,
+            @Value("${security.user-cache.ttl:5m}") Duration ttl,
+            @Value("${security.user-cache.max-size:10000}") long maxSize) {
+        this.userDetailsService = userDetailsService;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+
+        // Exposes cache.gets{result=hit|miss}, cache.evictions, cache.size with tag cache=userDetails
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "userDetails");
+    }
+
+    // Returns the cached principal or loads (and caches) it, one load per username at a time.
+    // UsernameNotFoundException from the delegate is propagated and nothing is cached.
+    // The load runs on the calling thread without holding a lock (see CallerLoadedCache).
+    public UserDetails get(String username) {
+        return CallerLoadedCache.get(principals, username, userDetailsService::loadUserByUsername);
+    }
+
+    // Must be called whenever a user's credentials or state change. A load already running is
+    // discarded, so it cannot put the old principal back.
+    public void evict(String username) {
+        principals.synchronous().invalidate(username);
+    }
+}
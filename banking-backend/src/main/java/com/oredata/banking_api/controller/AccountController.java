@@ -64,4 +64,19 @@ public class AccountController {
         List<Account> accounts = accountService.getAccountsByUserId(userId);
         return ResponseEntity.ok(accountMapper.toDtoList(accounts));
     }
+
+    // 7. Hot Account Mode (spread balance over bucket rows for high write volume)
+    @PostMapping("/{id}/hot")
+    public ResponseEntity<Void> promoteToHotAccount(@PathVariable UUID id,
+            @RequestParam(defaultValue = "${banking.hot-accounts.default-stripes:8}") int stripes) {
+        accountService.promoteToHotAccount(id, stripes);
+        return ResponseEntity.noContent().build();
+    }
+
+    // 8. Back to a single balance row
+    @DeleteMapping("/{id}/hot")
+    public ResponseEntity<Void> demoteHotAccount(@PathVariable UUID id) {
+        accountService.demoteHotAccount(id);
+        return ResponseEntity.noContent().build();
+    }
 }
\ No newline at end of file
@@ -1,17 +1,38 @@
 package com.oredata.banking_api.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oredata.banking_api.dto.requestDto.BatchTransferRequestDto;
+import com.oredata.banking_api.dto.requestDto.ExportFormat;
+import com.oredata.banking_api.dto.requestDto.TransactionCursor;
 import com.oredata.banking_api.dto.requestDto.TransactionDto;
+import com.oredata.banking_api.dto.responseDto.BatchTransferItemResponseDto;
+import com.oredata.banking_api.dto.responseDto.BatchTransferResponseDto;
+import com.oredata.banking_api.dto.responseDto.TransactionPageResponseDto;
 import com.oredata.banking_api.dto.responseDto.TransactionResponseDto; // New DTO
+import com.oredata.banking_api.dto.responseDto.TransferStatusResponseDto;
+import com.oredata.banking_api.model.BatchTransferResult;
+import com.oredata.banking_api.model.TransferOutcome;
 import com.oredata.banking_api.model.entity.Transaction;
+import com.oredata.banking_api.mapper.TransactionExportWriter;
 import com.oredata.banking_api.mapper.TransactionMapper; // New Mapper
+import com.oredata.banking_api.service.IdempotencyService;
 import com.oredata.banking_api.service.TransactionService;
+import com.oredata.banking_api.service.TransferIntakeService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
+import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import jakarta.validation.Valid;
 
@@ -20,34 +41,149 @@ import jakarta.validation.Valid;
 @RequiredArgsConstructor
 public class TransactionController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private final TransactionService transactionService;
     private final TransactionMapper transactionMapper;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyService idempotencyService;
+    private final ObjectProvider<TransferIntakeService> transferIntakeService; // Absent in ledger engine mode
 
     @PostMapping("/transfer")
-    public ResponseEntity<TransactionResponseDto> transferFunds(@Valid @RequestBody TransactionDto transactionDto) {
+    public ResponseEntity<TransactionResponseDto> transferFunds(@Valid @RequestBody TransactionDto transactionDto,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        String request = requestOf(transactionDto.getSourceAccountId(), transactionDto.getTargetAccountId(),
+                transactionDto.getTargetAccountNumber(), transactionDto.getAmount());
         // Convert entity from Service to DTO and return
-        Transaction transaction = transactionService.transferFunds(transactionDto);
-        return ResponseEntity.ok(transactionMapper.toDto(transaction));
+        return ResponseEntity.ok(idempotent(idempotencyKey, "transfer", request,
+                () -> transactionService.transferFunds(transactionDto)));
+    }
+
+    // Accept-then-process: 202 once the request is journaled, the outcome is read from the status endpoint
+    @PostMapping(value = "/transfer", params = "async=true")
+    public ResponseEntity<TransferStatusResponseDto> submitTransfer(@Valid @RequestBody TransactionDto transactionDto) {
+        UUID transferId = intakeService().submit(transactionDto);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/transactions/transfers/" + transferId))
+                .body(toStatusDto(TransferOutcome.pending(transferId)));
+    }
+
+    @GetMapping("/transfers/{transferId}")
+    public ResponseEntity<TransferStatusResponseDto> getTransferStatus(@PathVariable UUID transferId) {
+        return ResponseEntity.ok(toStatusDto(intakeService().getStatus(transferId)));
+    }
+
+    // Many transfers in one request/DB transaction (payroll, settlement jobs)
+    @PostMapping("/batch")
+    public ResponseEntity<BatchTransferResponseDto> transferBatch(
+            @Valid @RequestBody BatchTransferRequestDto batchTransferRequestDto) {
+        List<BatchTransferResult> results = transactionService.transferBatch(
+                batchTransferRequestDto.getTransfers(), batchTransferRequestDto.isContinueOnError());
+
+        int succeeded = 0;
+        List<BatchTransferItemResponseDto> items = new ArrayList<>(results.size());
+        for (BatchTransferResult result : results) {
+            if (result.isSuccess()) {
+                succeeded++;
+                items.add(new BatchTransferItemResponseDto(result.getIndex(), "SUCCESS",
+                        transactionMapper.toDto(result.getTransaction()), null));
+            } else {
+                items.add(new BatchTransferItemResponseDto(result.getIndex(), "FAILED", null, result.getError()));
+            }
+        }
+        return ResponseEntity.ok(new BatchTransferResponseDto(succeeded, results.size() - succeeded, items));
     }
 
     @PostMapping("/deposit")
     public ResponseEntity<TransactionResponseDto> deposit(@RequestParam UUID accountId,
-            @RequestParam BigDecimal amount) {
-        Transaction transaction = transactionService.deposit(accountId, amount);
-        return ResponseEntity.ok(transactionMapper.toDto(transaction));
+            @RequestParam BigDecimal amount,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return ResponseEntity.ok(idempotent(idempotencyKey, "deposit", requestOf(accountId, amount),
+                () -> transactionService.deposit(accountId, amount)));
     }
 
     @PostMapping("/withdraw")
     public ResponseEntity<TransactionResponseDto> withdraw(@RequestParam UUID accountId,
-            @RequestParam BigDecimal amount) {
-        Transaction transaction = transactionService.withdraw(accountId, amount);
-        return ResponseEntity.ok(transactionMapper.toDto(transaction));
+            @RequestParam BigDecimal amount,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return ResponseEntity.ok(idempotent(idempotencyKey, "withdraw", requestOf(accountId, amount),
+                () -> transactionService.withdraw(accountId, amount)));
     }
 
     @GetMapping("/account/{accountId}")
     public ResponseEntity<List<TransactionResponseDto>> getAccountHistory(@PathVariable UUID accountId) {
-        List<Transaction> transactions = transactionService.getAccountHistory(accountId);
-        // Convert list to DTO list and return
-        return ResponseEntity.ok(transactionMapper.toDtoList(transactions));
+        // Rows come back as DTOs already (no lazy account loads while mapping)
+        return ResponseEntity.ok(transactionService.getAccountHistory(accountId));
+    }
+
+    // Keyset-paginated history: pass back "nextCursor" to get the following page
+    @GetMapping("/account/{accountId}/page")
+    public ResponseEntity<TransactionPageResponseDto> getAccountHistoryPage(@PathVariable UUID accountId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        TransactionCursor seekKey = cursor == null || cursor.isBlank() ? null : TransactionCursor.decode(cursor);
+
+        Slice<TransactionResponseDto> page = transactionService.getAccountHistoryPage(accountId, seekKey, pageSize);
+
+        String nextCursor = null;
+        if (page.hasNext()) {
+            TransactionResponseDto last = page.getContent().get(page.getNumberOfElements() - 1);
+            nextCursor = new TransactionCursor(last.getTransactionDate(), last.getId()).encode();
+        }
+        return ResponseEntity.ok(new TransactionPageResponseDto(page.getContent(), nextCursor));
+    }
+
+    // Full history download (format=ndjson|csv), streamed row by row
+    @GetMapping("/account/{accountId}/export")
+    public ResponseEntity<StreamingResponseBody> exportAccountHistory(@PathVariable UUID accountId,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+
+        // Runs on the async request thread after this method returns
+        StreamingResponseBody body = out -> {
+            try (TransactionExportWriter writer = new TransactionExportWriter(exportFormat, out, objectMapper)) {
+                transactionService.exportAccountHistory(accountId, writer::write);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"transactions-" + accountId + "." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    // Without the header the operation simply runs; with it, a retry gets the first response back
+    private TransactionResponseDto idempotent(String idempotencyKey, String operation, String request,
+            Supplier<Transaction> operationCall) {
+        if (idempotencyKey == null) {
+            return transactionMapper.toDto(operationCall.get());
+        }
+        return idempotencyService.execute(idempotencyKey, operation, request, operationCall);
+    }
+
+    // Identifies the request behind a key (1.0 and 1.00 are the same amount)
+    private static String requestOf(Object... parts) {
+        StringBuilder request = new StringBuilder();
+        for (Object part : parts) {
+            Object value = part instanceof BigDecimal amount ? amount.stripTrailingZeros().toPlainString() : part;
+            request.append(value).append('|');
+        }
+        return request.toString();
+    }
+
+    private TransferIntakeService intakeService() {
+        TransferIntakeService service = transferIntakeService.getIfAvailable();
+        if (service == null) {
+            throw new IllegalArgumentException("Asynchronous transfers are not available in ledger engine mode");
+        }
+        return service;
+    }
+
+    private TransferStatusResponseDto toStatusDto(TransferOutcome outcome) {
+        return new TransferStatusResponseDto(outcome.getTransferId(), outcome.getStatus(),
+                transactionMapper.toDto(outcome.getTransaction()), outcome.getError());
     }
-}
\ No newline at end of file
+}
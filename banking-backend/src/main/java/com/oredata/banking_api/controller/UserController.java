@@ -1,17 +1,30 @@
 package com.oredata.banking_api.controller;
 
 import com.oredata.banking_api.dto.requestDto.LoginRequestDto;
+import com.oredata.banking_api.dto.requestDto.RefreshTokenRequestDto;
 import com.oredata.banking_api.dto.responseDto.LoginResponseDto;
 import com.oredata.banking_api.dto.requestDto.RegisterRequestDto; // NEW NAME
+import com.oredata.banking_api.dto.requestDto.UserCursor;
 import com.oredata.banking_api.dto.responseDto.RegisterResponseDto;
+import com.oredata.banking_api.dto.responseDto.UserPageResponseDto;
 import com.oredata.banking_api.model.entity.User;
 import com.oredata.banking_api.mapper.UserMapper;
 import com.oredata.banking_api.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 
 import jakarta.validation.Valid;
 
@@ -20,8 +33,12 @@ import jakarta.validation.Valid;
 @RequiredArgsConstructor
 public class UserController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final String NDJSON = "application/x-ndjson";
+
     private final UserService userService;
     private final UserMapper userMapper;
+    private final ObjectMapper objectMapper;
 
     // 1. Register
     @PostMapping("/register")
@@ -36,9 +53,57 @@ public class UserController {
         return ResponseEntity.ok(userService.login(loginRequestDto));
     }
 
+    // New token pair without the password; the refresh token sent is used up
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponseDto> refresh(@Valid @RequestBody RefreshTokenRequestDto refreshTokenRequestDto) {
+        return ResponseEntity.ok(userService.refresh(refreshTokenRequestDto));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@Valid @RequestBody RefreshTokenRequestDto refreshTokenRequestDto) {
+        userService.logout(refreshTokenRequestDto);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Keyset-paginated, by username: pass back "nextCursor" to get the following page
     @GetMapping
-    public ResponseEntity<List<RegisterResponseDto>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
-        return ResponseEntity.ok(userMapper.toDtoList(users));
+    public ResponseEntity<UserPageResponseDto> getUsers(@RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        UserCursor seekKey = cursor == null || cursor.isBlank() ? null : UserCursor.decode(cursor);
+
+        Slice<RegisterResponseDto> page = userService.getUsersPage(seekKey, pageSize);
+
+        String nextCursor = null;
+        if (page.hasNext()) {
+            RegisterResponseDto last = page.getContent().get(page.getNumberOfElements() - 1);
+            nextCursor = new UserCursor(last.getUsername()).encode();
+        }
+        return ResponseEntity.ok(new UserPageResponseDto(page.getContent(), nextCursor));
+    }
+
+    // Streaming mode (Accept: application/x-ndjson): every user, one JSON object per line,
+    // written as rows arrive from the database
+    @GetMapping(produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamUsers() {
+        ObjectWriter jsonWriter = objectMapper.writerFor(RegisterResponseDto.class);
+
+        // Runs on the async request thread after this method returns
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            userService.exportUsers(user -> {
+                try {
+                    writer.write(jsonWriter.writeValueAsString(user));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e); // Called from inside the repository stream
+                }
+            });
+            writer.flush(); // The servlet container owns (and closes) the response stream
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
     }
 }
\ No newline at end of file
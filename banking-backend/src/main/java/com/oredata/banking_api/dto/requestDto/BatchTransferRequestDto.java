@@ -0,0 +1,22 @@
+package com.oredata.banking_api.dto.requestDto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+@Getter
+@Setter
+public class BatchTransferRequestDto {
+    @NotEmpty(message = "At least one transfer is required")
+    @Size(max = 1000, message = "A batch can contain at most 1000 transfers")
+    private List<@Valid TransactionDto> transfers;
+
+    // false (default): all-or-nothing, the first failing item rolls back the whole batch
+    // true: failing items are reported and skipped, the rest are committed
+    private boolean continueOnError;
+}
@@ -0,0 +1,25 @@
+package com.oredata.banking_api.dto.requestDto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Locale;
+
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"), // One JSON object per line
+    CSV("text/csv", "csv");
+
+    private final String mediaType;
+    private final String extension;
+
+    // Case-insensitive lookup for the "format" query parameter
+    public static ExportFormat from(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported export format: " + value);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.oredata.banking_api.dto.requestDto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import jakarta.validation.constraints.NotBlank;
+
+@Getter
+@Setter
+public class RefreshTokenRequestDto {
+    @NotBlank(message = "Refresh token is required")
+    private String refreshToken;
+}
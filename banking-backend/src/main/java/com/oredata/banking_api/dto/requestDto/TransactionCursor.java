@@ -0,0 +1,39 @@
+package com.oredata.banking_api.dto.requestDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Seek key for keyset pagination of transaction history: (transactionDate, id).
+// Sent to clients as an opaque URL-safe token.
+@Getter
+@AllArgsConstructor
+public class TransactionCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private LocalDateTime transactionDate;
+    private Long id;
+
+    public String encode() {
+        String raw = transactionDate + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TransactionCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new TransactionCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            // NumberFormatException is an IllegalArgumentException
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.oredata.banking_api.dto.requestDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Seek key for keyset pagination of the user listing: the (unique) username of the last row.
+// Sent to clients as an opaque URL-safe token.
+@Getter
+@AllArgsConstructor
+public class UserCursor {
+
+    private String username;
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(username.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static UserCursor decode(String token) {
+        try {
+            return new UserCursor(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
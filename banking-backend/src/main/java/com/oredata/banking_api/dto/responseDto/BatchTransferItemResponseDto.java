@@ -0,0 +1,15 @@
+package com.oredata.banking_api.dto.responseDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class BatchTransferItemResponseDto {
+    private int index; // Position in the request list
+    private String status; // "SUCCESS" or "FAILED"
+    private TransactionResponseDto transaction; // null when FAILED
+    private String error; // null when SUCCESS
+}
@@ -0,0 +1,16 @@
+package com.oredata.banking_api.dto.responseDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class BatchTransferResponseDto {
+    private int succeeded;
+    private int failed;
+    private List<BatchTransferItemResponseDto> results;
+}
@@ -10,5 +10,6 @@ import lombok.Setter;
 public class LoginResponseDto {
     private String token;
     private java.util.UUID userId;
+    private String refreshToken; // Exchange at /api/users/refresh for a new token pair
 
 }
\ No newline at end of file
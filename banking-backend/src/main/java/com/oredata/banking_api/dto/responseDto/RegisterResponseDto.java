@@ -1,16 +1,28 @@
 package com.oredata.banking_api.dto.responseDto;
 
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Getter
 @Setter
+@NoArgsConstructor
 public class RegisterResponseDto {
     private UUID id;
     private String username;
     private String email;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
-}
\ No newline at end of file
+
+    // JPQL constructor expression of the user listing (see UserRepository)
+    public RegisterResponseDto(UUID id, String username, String email, LocalDateTime createdAt,
+            LocalDateTime updatedAt) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+}
@@ -1,12 +1,16 @@
 package com.oredata.banking_api.dto.responseDto;
 
+import com.oredata.banking_api.model.entity.enums.TransactionStatus;
+import com.oredata.banking_api.model.entity.enums.TransactionType;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Getter
 @Setter
+@NoArgsConstructor
 public class TransactionResponseDto {
     private Long id;
     private BigDecimal amount;
@@ -15,4 +19,16 @@ public class TransactionResponseDto {
     private LocalDateTime transactionDate;
     private String sourceAccountNumber; // Just account number instead of full object
     private String targetAccountNumber; // Just account number instead of full object
-}
\ No newline at end of file
+
+    // JPQL constructor expression of the history queries (see AccountPostingRepository)
+    public TransactionResponseDto(Long id, BigDecimal amount, TransactionType type, TransactionStatus status,
+            LocalDateTime transactionDate, String sourceAccountNumber, String targetAccountNumber) {
+        this.id = id;
+        this.amount = amount;
+        this.type = type != null ? type.name() : null;
+        this.status = status != null ? status.name() : null;
+        this.transactionDate = transactionDate;
+        this.sourceAccountNumber = sourceAccountNumber;
+        this.targetAccountNumber = targetAccountNumber;
+    }
+}
@@ -0,0 +1,17 @@
+package com.oredata.banking_api.dto.responseDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class TransferStatusResponseDto {
+    private UUID transferId;
+    private String status; // "PENDING", "SUCCESS" or "FAILED"
+    private TransactionResponseDto transaction; // only when SUCCESS
+    private String error; // only when FAILED
+}
@@ -0,0 +1,15 @@
+package com.oredata.banking_api.dto.responseDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class UserPageResponseDto {
+    private List<RegisterResponseDto> content;
+    private String nextCursor; // null when this is the last page
+}
@@ -1,5 +1,7 @@
 package com.oredata.banking_api.exception;
 
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -64,6 +66,12 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(ex.getMessage(), HttpStatus.FORBIDDEN);
     }
 
+    // Handle unknown, expired or reused refresh token (401)
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ResponseEntity<ErrorResponseDto> handleInvalidRefreshTokenException(InvalidRefreshTokenException ex) {
+        return buildErrorResponse(ex.getMessage(), HttpStatus.UNAUTHORIZED);
+    }
+
     // Handle Authentication Failure (401) - e.g., Wrong Password
     @ExceptionHandler({ BadCredentialsException.class, AuthenticationException.class })
     public ResponseEntity<ErrorResponseDto> handleAuthenticationException(Exception ex) {
@@ -76,6 +84,34 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
+    // Handle concurrent updates that were still conflicting after all retries (409)
+    // (optimistic @Version conflicts, deadlocks, lock timeouts)
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<ErrorResponseDto> handleConcurrencyFailureException(ConcurrencyFailureException ex) {
+        return buildErrorResponse("The account is being updated by another request. Please try again.",
+                HttpStatus.CONFLICT);
+    }
+
+    // Handle a duplicate Idempotency-Key whose first request has not finished yet (409)
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<ErrorResponseDto> handleIdempotencyConflictException(IdempotencyConflictException ex) {
+        return buildErrorResponse(ex.getMessage(), HttpStatus.CONFLICT);
+    }
+
+    // Handle ledger engine overload / halt (503)
+    @ExceptionHandler(LedgerUnavailableException.class)
+    public ResponseEntity<ErrorResponseDto> handleLedgerUnavailableException(LedgerUnavailableException ex) {
+        return buildErrorResponse(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    // Handle overload of a bounded resource, e.g. the password hashing pool (503, retry shortly)
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<ErrorResponseDto> handleServiceBusyException(ServiceBusyException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(buildErrorResponse(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE).getBody());
+    }
+
     // Handle generic RuntimeException (Fallback)
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ErrorResponseDto> handleRuntimeException(RuntimeException ex) {
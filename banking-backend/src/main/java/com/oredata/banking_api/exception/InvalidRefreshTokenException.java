@@ -0,0 +1,9 @@
+package com.oredata.banking_api.exception;
+
+import org.springframework.security.core.AuthenticationException;
+
+public class InvalidRefreshTokenException extends AuthenticationException {
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.oredata.banking_api.exception;
+
+// The ledger did not confirm the operation in time: it may still be committed (unlike the other
+// LedgerUnavailableException cases, where it definitely was not)
+public class LedgerOutcomeUnknownException extends LedgerUnavailableException {
+    public LedgerOutcomeUnknownException(String message) {
+        super(message);
+    }
+}
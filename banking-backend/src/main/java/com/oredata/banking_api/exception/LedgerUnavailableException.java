@@ -0,0 +1,11 @@
+package com.oredata.banking_api.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class LedgerUnavailableException extends RuntimeException {
+    public LedgerUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -18,7 +18,7 @@ public class AccountMapper {
         dto.setId(account.getId());
         dto.setNumber(account.getNumber());
         dto.setName(account.getName());
-        dto.setBalance(account.getBalance());
+        dto.setBalance(account.getAvailableBalance()); // Includes hot-account buckets
         dto.setCreatedAt(account.getCreatedAt());
 
         // We only fetch these fields to avoid exposing sensitive User details (password
@@ -0,0 +1,80 @@
+package com.oredata.banking_api.mapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.oredata.banking_api.dto.requestDto.ExportFormat;
+import com.oredata.banking_api.dto.responseDto.TransactionResponseDto;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+// Writes transaction rows one at a time to a response stream (NDJSON or CSV).
+// Nothing is buffered beyond the writer's own buffer, so memory use does not depend on row count.
+public class TransactionExportWriter implements AutoCloseable {
+
+    private static final String CSV_HEADER = "id,transactionDate,type,status,amount,sourceAccountNumber,targetAccountNumber";
+
+    private final ExportFormat format;
+    private final Writer writer;
+    private final ObjectWriter jsonWriter; // Only used for NDJSON
+
+    public TransactionExportWriter(ExportFormat format, OutputStream out, ObjectMapper objectMapper) throws IOException {
+        this.format = format;
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        if (format == ExportFormat.NDJSON) {
+            this.jsonWriter = objectMapper.writerFor(TransactionResponseDto.class);
+        } else {
+            this.jsonWriter = null;
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+    }
+
+    // Called from inside the repository stream, hence unchecked
+    public void write(TransactionResponseDto dto) {
+        try {
+            if (format == ExportFormat.NDJSON) {
+                writer.write(jsonWriter.writeValueAsString(dto));
+                writer.write('\n');
+            } else {
+                writeCsvRow(dto);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeCsvRow(TransactionResponseDto dto) throws IOException {
+        // All columns are numbers, enum names, ISO dates or account numbers: no quoting needed
+        writer.write(String.valueOf(dto.getId()));
+        writer.write(',');
+        writer.write(String.valueOf(dto.getTransactionDate()));
+        writer.write(',');
+        writer.write(nullToEmpty(dto.getType()));
+        writer.write(',');
+        writer.write(nullToEmpty(dto.getStatus()));
+        writer.write(',');
+        writer.write(dto.getAmount().toPlainString());
+        writer.write(',');
+        writer.write(nullToEmpty(dto.getSourceAccountNumber()));
+        writer.write(',');
+        writer.write(nullToEmpty(dto.getTargetAccountNumber()));
+        writer.write('\n');
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Flush only: the servlet container owns the response stream
+        writer.flush();
+    }
+}
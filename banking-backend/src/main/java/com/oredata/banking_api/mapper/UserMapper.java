@@ -4,9 +4,6 @@ import com.oredata.banking_api.dto.responseDto.RegisterResponseDto; // Fixed Imp
 import com.oredata.banking_api.model.entity.User;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
 @Component
 public class UserMapper {
 
@@ -24,14 +21,4 @@ public class UserMapper {
 
         return dto;
     }
-
-    // If returning a user list for admin, you can convert this to a
-    // RegisterResponseDto list
-    // Or use a separate UserResponseDto class if available.
-    // For now, let's proceed with RegisterResponseDto:
-    public List<RegisterResponseDto> toDtoList(List<User> users) {
-        return users.stream()
-                .map(this::toRegisterResponseDto)
-                .collect(Collectors.toList());
-    }
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.oredata.banking_api.model;
+
+import com.oredata.banking_api.model.entity.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Outcome of one item of a batch transfer (service level, mapped to a DTO by the controller)
+@Getter
+@AllArgsConstructor
+public class BatchTransferResult {
+    private final int index;
+    private final Transaction transaction; // null on failure
+    private final String error; // null on success
+
+    public static BatchTransferResult success(int index, Transaction transaction) {
+        return new BatchTransferResult(index, transaction, null);
+    }
+
+    public static BatchTransferResult failure(int index, String error) {
+        return new BatchTransferResult(index, null, error);
+    }
+
+    public boolean isSuccess() {
+        return transaction != null;
+    }
+}
@@ -0,0 +1,27 @@
+package com.oredata.banking_api.model;
+
+import com.oredata.banking_api.model.entity.Transaction;
+import com.oredata.banking_api.model.entity.TransferRequest;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+// State of an asynchronously accepted transfer (service level, mapped to a DTO by the controller)
+@Getter
+@AllArgsConstructor
+public class TransferOutcome {
+    private final UUID transferId;
+    private final String status; // "PENDING", "SUCCESS" or "FAILED"
+    private final Transaction transaction; // only when SUCCESS
+    private final String error; // only when FAILED
+
+    public static TransferOutcome pending(UUID transferId) {
+        return new TransferOutcome(transferId, "PENDING", null, null);
+    }
+
+    public static TransferOutcome of(TransferRequest request) {
+        return new TransferOutcome(request.getId(), request.getStatus().name(), request.getTransaction(),
+                request.getError());
+    }
+}
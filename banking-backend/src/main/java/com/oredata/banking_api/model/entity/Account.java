@@ -2,11 +2,16 @@ package com.oredata.banking_api.model.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.Formula;
 import java.math.BigDecimal;
 import java.util.UUID;
 
 @Entity
-@Table(name = "accounts")
+@Table(name = "accounts", indexes = {
+        // Per-user lookups (listing, search): cost follows the user's accounts, not the table
+        @Index(name = "idx_accounts_user", columnList = "user_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -24,9 +29,22 @@ public class Account extends BaseEntity {
     @Column(nullable = false)
     private String name;
 
-    @Column(nullable = false)
+    // Same as Hibernate's default numeric(38,2), declared so "balance +/- :amount" in
+    // AccountRepository's atomic updates can be typed on every dialect
+    @Column(nullable = false, precision = 38, scale = 2)
     private BigDecimal balance; // [cite: 14]
 
+    // HOT ACCOUNT MODE: number of balance buckets (0 = off). See StripedBalances.
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int stripes;
+
+    // Sum of the bucket balances, computed by the DB when the account is loaded (read-only)
+    @Formula("(case when stripes > 0 then (select coalesce(sum(b.balance), 0) from account_balance_buckets b "
+            + "where b.account_id = id) else 0 end)")
+    @Setter(AccessLevel.NONE)
+    private BigDecimal stripedBalance;
+
     // ADDED FOR OPTIMISTIC LOCKING (CRITICAL FIX)
     @Version
     private Long version;
@@ -34,4 +52,9 @@ public class Account extends BaseEntity {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
+
+    // Balance as clients see it: main balance plus all buckets of a hot account
+    public BigDecimal getAvailableBalance() {
+        return stripedBalance == null ? balance : balance.add(stripedBalance);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.oredata.banking_api.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+// One stripe of a "hot" account's balance (see StripedBalances).
+// The account's balance is accounts.balance + SUM(account_balance_buckets.balance).
+@Entity
+@Table(name = "account_balance_buckets", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_account_balance_buckets_account_bucket", columnNames = { "account_id", "bucket" })
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountBalanceBucket {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id", nullable = false)
+    private Account account;
+
+    @Column(nullable = false)
+    private int bucket; // 0 .. stripes-1
+
+    @Column(nullable = false, precision = 38, scale = 2)
+    private BigDecimal balance;
+}
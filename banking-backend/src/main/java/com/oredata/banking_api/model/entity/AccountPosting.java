@@ -0,0 +1,74 @@
+package com.oredata.banking_api.model.entity;
+
+import com.oredata.banking_api.model.entity.enums.TransactionType;
+import jakarta.persistence.*;
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Double-entry view of the transactions table: one signed row per account per Transaction.
+// Account history is a single range scan on (account_id, posted_at, transaction_id) instead of an
+// OR across transactions.from_account_id / to_account_id.
+// Partitioned by month of posted_at like transactions (db/migration V2), hence posted_at in the
+// unique key and no foreign key to transactions.
+@Entity
+@Table(name = "account_postings", indexes = {
+        @Index(name = "idx_account_postings_account_posted", columnList = "account_id, posted_at, transaction_id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_account_postings_transaction_account", columnNames = { "transaction_id", "account_id", "posted_at" })
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountPosting {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_postings_seq")
+    @SequenceGenerator(name = "account_postings_seq", sequenceName = "account_postings_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id", nullable = false)
+    private Account account;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "transaction_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Transaction transaction;
+
+    @Column(nullable = false, precision = 38, scale = 2)
+    private BigDecimal amount; // + credit, - debit
+
+    @Column(nullable = false)
+    private LocalDateTime postedAt; // = transaction.transactionDate
+
+    // Deposit: +amount, withdrawal: -amount (from == to, one row).
+    // Transfer: -amount on the sender, +amount on the receiver (a transfer to self nets to one 0 row).
+    public static List<AccountPosting> of(Transaction transaction) {
+        Account from = transaction.getFrom();
+        Account to = transaction.getTo();
+        BigDecimal amount = transaction.getAmount();
+
+        if (transaction.getType() == TransactionType.DEPOSIT) {
+            return List.of(posting(transaction, to, amount));
+        }
+        if (transaction.getType() == TransactionType.WITHDRAWAL) {
+            return List.of(posting(transaction, from, amount.negate()));
+        }
+        if (from.getId().equals(to.getId())) {
+            return List.of(posting(transaction, from, BigDecimal.ZERO));
+        }
+        return List.of(posting(transaction, from, amount.negate()), posting(transaction, to, amount));
+    }
+
+    private static AccountPosting posting(Transaction transaction, Account account, BigDecimal amount) {
+        return AccountPosting.builder()
+                .account(account)
+                .transaction(transaction)
+                .amount(amount)
+                .postedAt(transaction.getTransactionDate())
+                .build();
+    }
+}
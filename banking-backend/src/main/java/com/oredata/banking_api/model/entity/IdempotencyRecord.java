@@ -0,0 +1,37 @@
+package com.oredata.banking_api.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+// Idempotency-Key of a money-moving request (see IdempotencyServiceImpl).
+// Claimed (response null) before the operation runs, completed with the response afterwards.
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_created_at", columnList = "created_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+
+    @Id
+    @Column(length = 200)
+    private String id; // SHA-256 of the username and the Idempotency-Key (IdempotencyServiceImpl.recordId)
+
+    @Column(nullable = false, length = 20)
+    private String operation; // transfer, deposit, withdraw
+
+    @Column(nullable = false, length = 64)
+    private String requestHash; // SHA-256 of the request, a key can't be reused for a different one
+
+    @Column(length = 2000)
+    private String response; // TransactionResponseDto as JSON, null while in progress
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime completedAt;
+}
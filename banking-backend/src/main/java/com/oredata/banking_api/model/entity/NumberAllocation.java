@@ -0,0 +1,23 @@
+package com.oredata.banking_api.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Allocation table for application-generated numbers (see AccountNumberGenerator).
+// One row per counter; nodes reserve blocks by moving next_value forward under a row lock.
+@Entity
+@Table(name = "number_allocations")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NumberAllocation {
+
+    @Id
+    @Column(length = 50)
+    private String name;
+
+    @Column(nullable = false)
+    private long nextValue; // First value not yet handed out to any node
+}
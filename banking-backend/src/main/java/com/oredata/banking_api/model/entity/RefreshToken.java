@@ -0,0 +1,40 @@
+package com.oredata.banking_api.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Refresh token (see RefreshTokenServiceImpl). Only the SHA-256 of the token is stored.
+// Every refresh uses up the token and issues the next one in the same family; a used token
+// presented again revokes the whole family (it was copied).
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_family", columnList = "family"),
+        @Index(name = "idx_refresh_tokens_expires_at", columnList = "expires_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RefreshToken {
+
+    @Id
+    @Column(length = 64)
+    private String tokenHash;
+
+    @Column(nullable = false)
+    private UUID family; // One per login, shared by all tokens rotated from it
+
+    @Column(nullable = false)
+    private UUID userId;
+
+    @Column(nullable = false)
+    private String username; // JWT subject
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    private LocalDateTime usedAt; // Set when exchanged for the next token
+}
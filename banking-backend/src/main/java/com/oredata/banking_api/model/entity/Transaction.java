@@ -7,8 +7,14 @@ import lombok.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+// Partitioned by month of transaction_date in PostgreSQL, primary key (id, transaction_date):
+// schema in src/main/resources/db/migration
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        // Account-side lookups (foreign keys); history itself is read from account_postings
+        @Index(name = "idx_transactions_from_date_id", columnList = "from_account_id, transaction_date, id"),
+        @Index(name = "idx_transactions_to_date_id", columnList = "to_account_id, transaction_date, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -16,8 +22,11 @@ import java.time.LocalDateTime;
 @Builder
 public class Transaction {
 
+    // Sequence instead of IDENTITY: ids are reserved 50 at a time (pooled-lo optimizer),
+    // so Hibernate can defer and batch INSERTs
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id; // [cite: 20]
 
     // NOTE: Named 'from' and 'to' as in PDF (Java doesn't reserve 'from' but SQL
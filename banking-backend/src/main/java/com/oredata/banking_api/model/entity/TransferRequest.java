@@ -0,0 +1,43 @@
+package com.oredata.banking_api.model.entity;
+
+import com.oredata.banking_api.model.entity.enums.TransactionStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Outcome of an asynchronously accepted transfer (see TransferIntakeServiceImpl).
+// Written in the same DB transaction as the transfer itself, so a journal entry replayed after a
+// crash is recognised as already applied.
+@Entity
+@Table(name = "transfer_requests")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransferRequest {
+
+    @Id
+    private UUID id; // Transfer id handed to the client on acceptance
+
+    @Column(nullable = false)
+    private String username; // Who submitted it (only they can read the status)
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransactionStatus status;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "transaction_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Transaction transaction; // null when FAILED
+
+    @Column(length = 500)
+    private String error; // null when SUCCESS
+
+    @Column(nullable = false)
+    private LocalDateTime acceptedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,39 @@
+package com.oredata.banking_api.repository;
+
+import com.oredata.banking_api.model.entity.AccountBalanceBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.LockModeType;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface AccountBalanceBucketRepository extends JpaRepository<AccountBalanceBucket, UUID> {
+
+    // Same atomic pattern as AccountRepository.credit/debit, on one bucket row
+    @Modifying
+    @Query("UPDATE AccountBalanceBucket b SET b.balance = b.balance + :amount "
+            + "WHERE b.account.id = :accountId AND b.bucket = :bucket")
+    int credit(@Param("accountId") UUID accountId, @Param("bucket") int bucket, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query("UPDATE AccountBalanceBucket b SET b.balance = b.balance - :amount "
+            + "WHERE b.account.id = :accountId AND b.bucket = :bucket AND b.balance >= :amount")
+    int debit(@Param("accountId") UUID accountId, @Param("bucket") int bucket, @Param("amount") BigDecimal amount);
+
+    // Locks all buckets of an account (always in bucket order)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM AccountBalanceBucket b WHERE b.account.id = :accountId ORDER BY b.bucket")
+    List<AccountBalanceBucket> findAllByAccountIdForUpdate(@Param("accountId") UUID accountId);
+
+    @Modifying
+    @Query("DELETE FROM AccountBalanceBucket b WHERE b.account.id = :accountId")
+    int deleteAllByAccountId(@Param("accountId") UUID accountId);
+}
@@ -0,0 +1,63 @@
+package com.oredata.banking_api.repository;
+
+import com.oredata.banking_api.dto.responseDto.TransactionResponseDto;
+import com.oredata.banking_api.model.entity.AccountPosting;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.QueryHint;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+// Account history, read through the postings index (account_id, posted_at, transaction_id).
+// Every query is one ordered range scan; there is one posting per account per transaction,
+// so no de-duplication is needed.
+// Both tables are partitioned by month (db/migration V2). The join also matches the date
+// (posted_at = transaction_date), so in a nested-loop plan each transaction is looked up by its
+// full primary key in its own month's partition (run-time pruning).
+// Postings partitions are only pruned where the query bounds posted_at: a page after the first has
+// the cursor's date as upper bound and skips the later months. The full history, the first page and
+// the export have no bound and read the account's index range in every partition.
+// Rows come back as response DTOs with both account numbers joined in, so a page costs one
+// query: no Transaction entities, and no lazy account loads while mapping them.
+@Repository
+public interface AccountPostingRepository extends JpaRepository<AccountPosting, Long> {
+
+    String SELECT_HISTORY = "SELECT new com.oredata.banking_api.dto.responseDto.TransactionResponseDto("
+            + "t.id, t.amount, t.type, t.status, t.transactionDate, source.number, target.number) "
+            + "FROM AccountPosting p JOIN p.transaction t JOIN t.from source JOIN t.to target "
+            + "WHERE p.account.id = :accountId AND t.transactionDate = p.postedAt ";
+    String NEWEST_FIRST = "ORDER BY p.postedAt DESC, p.transaction.id DESC";
+
+    @Query(SELECT_HISTORY + NEWEST_FIRST)
+    List<TransactionResponseDto> findHistory(@Param("accountId") UUID accountId);
+
+    // KEYSET PAGINATION: (transactionDate, id) of the last row seen, see TransactionCursor
+    @Query(SELECT_HISTORY + NEWEST_FIRST)
+    List<TransactionResponseDto> findHistoryPage(@Param("accountId") UUID accountId, Pageable pageable);
+
+    // The plain bound on posted_at is redundant with the OR, it is there for the planner: it prunes the
+    // partitions after the cursor and starts one backward index range scan at the cursor
+    @Query(SELECT_HISTORY
+            + "AND p.postedAt <= :date "
+            + "AND (p.postedAt < :date OR (p.postedAt = :date AND p.transaction.id < :id)) "
+            + NEWEST_FIRST)
+    List<TransactionResponseDto> findHistoryPageBefore(@Param("accountId") UUID accountId,
+            @Param("date") LocalDateTime date, @Param("id") Long id, Pageable pageable);
+
+    // EXPORT
+    // Streams the full history with a JDBC fetch size, so rows are pulled from the DB in
+    // chunks instead of being loaded into one List. Must be consumed inside a transaction.
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_HISTORY + NEWEST_FIRST)
+    Stream<TransactionResponseDto> streamHistory(@Param("accountId") UUID accountId);
+}
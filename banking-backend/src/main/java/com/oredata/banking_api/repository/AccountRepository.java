@@ -1,13 +1,26 @@
 package com.oredata.banking_api.repository;
 
 import com.oredata.banking_api.model.entity.Account;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, UUID> {
@@ -15,16 +28,107 @@ public interface AccountRepository extends JpaRepository<Account, UUID> {
     // 1. SECURE SEARCH
     // Users can only search within their OWN accounts.
     // PDF Madde 2: "Search accounts for the authenticated user"
-    // SQL Logic: (Name LIKE OR Number LIKE) AND (Username EQUALS)
-    @Query("SELECT a FROM Account a WHERE (LOWER(a.name) LIKE LOWER(CONCAT('%', :query, '%')) OR a.number LIKE CONCAT('%', :query, '%')) AND a.user.username = :username")
-    List<Account> searchAccountsForUser(@Param("username") String username, @Param("query") String query);
+    // The user's rows are found through idx_accounts_user first, the LIKE filter only runs on those.
+    // Ranking: exact number, number prefix, name prefix, anything else; then by name.
+    // :contains / :prefix are lower-case LIKE patterns with '\' as escape character.
+    @Query("SELECT a FROM Account a WHERE a.user.username = :username "
+            + "AND (LOWER(a.name) LIKE :contains ESCAPE '\\' OR a.number LIKE :contains ESCAPE '\\') "
+            + "ORDER BY CASE WHEN a.number = :query THEN 0 "
+            + "WHEN a.number LIKE :prefix ESCAPE '\\' THEN 1 "
+            + "WHEN LOWER(a.name) LIKE :prefix ESCAPE '\\' THEN 2 ELSE 3 END, a.name, a.number")
+    List<Account> searchAccountsForUser(@Param("username") String username, @Param("query") String query,
+            @Param("contains") String contains, @Param("prefix") String prefix, Pageable pageable);
+
+    // 2. OWNERSHIP-SCOPED ACCESS
+    // The owner check is part of the WHERE clause and the user (needed by AccountMapper) is fetched
+    // in the same query. Empty = missing OR someone else's; AccountServiceImpl only tells 404 from 403
+    // on that path.
+    // (Explicit JPQL: the derived-query + entity-graph form joins users twice)
+    @Query("SELECT a FROM Account a JOIN FETCH a.user u WHERE a.id = :id AND u.username = :username")
+    java.util.Optional<Account> findByIdAndUser_Username(@Param("id") UUID id, @Param("username") String username);
 
-    // 2. Find all accounts by User ID (For listing)
-    List<Account> findByUserId(UUID userId);
+    @Query("SELECT COUNT(a) > 0 FROM Account a WHERE a.id = :id AND a.user.username = :username")
+    boolean existsByIdAndUser_Username(@Param("id") UUID id, @Param("username") String username);
 
-    // 3. Find by Account Number (For specific lookups / uniqueness check)
-    // Used for Transfer by Number and Unique Generation
+    // All accounts of a user (for listing), only if the user is the caller
+    @Query("SELECT a FROM Account a JOIN FETCH a.user u WHERE u.id = :userId AND u.username = :username")
+    List<Account> findByUser_IdAndUser_Username(@Param("userId") UUID userId, @Param("username") String username);
+
+    // 3. Find by Account Number (For specific lookups)
+    // Used for Transfer by Number
     java.util.Optional<Account> findByNumber(String number);
 
-    boolean existsByNumber(String number);
+    // 4. ACCOUNT DIRECTORY (see AccountDirectory)
+    // Resolve account numbers to ids without loading (or locking) the entities
+    @Query("SELECT a.id AS id, a.number AS number, a.user.id AS ownerId FROM Account a WHERE a.number IN :numbers")
+    List<AccountDirectoryView> findDirectoryEntriesByNumberIn(@Param("numbers") Collection<String> numbers);
+
+    // Startup load of every number
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT a.id AS id, a.number AS number, a.user.id AS ownerId FROM Account a")
+    Stream<AccountDirectoryView> streamDirectory();
+
+    // 5. Lock several accounts at once (SELECT ... FOR UPDATE)
+    // Rows are always locked in ascending id order, so two batches touching the same
+    // accounts can never wait on each other in a cycle (no deadlocks).
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id IN :ids ORDER BY a.id")
+    List<Account> findAllByIdInForUpdate(@Param("ids") Collection<UUID> ids);
+
+    // 6. ATOMIC BALANCE UPDATES
+    // Single-statement read-modify-write: the row lock is held only for the UPDATE itself and
+    // no entity is loaded. version is bumped so entity-based writers still detect the change.
+    // Return value = affected rows (0: account missing, or for debit also insufficient balance).
+    @Modifying
+    @Query("UPDATE Account a SET a.balance = a.balance - :amount, a.version = a.version + 1, a.updatedAt = :now "
+            + "WHERE a.id = :id AND a.balance >= :amount")
+    int debit(@Param("id") UUID id, @Param("amount") BigDecimal amount, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Account a SET a.balance = a.balance + :amount, a.version = a.version + 1, a.updatedAt = :now "
+            + "WHERE a.id = :id")
+    int credit(@Param("id") UUID id, @Param("amount") BigDecimal amount, @Param("now") LocalDateTime now);
+
+    // Rename only: an entity save would write back every column it loaded (balance, stripes)
+    @Modifying
+    @Query("UPDATE Account a SET a.name = :name, a.version = a.version + 1, a.updatedAt = :now WHERE a.id = :id")
+    int rename(@Param("id") UUID id, @Param("name") String name, @Param("now") LocalDateTime now);
+
+    // 7. HOT ACCOUNT MODE (see StripedBalances)
+    @Query("SELECT a.stripes FROM Account a WHERE a.id = :id")
+    java.util.Optional<Integer> findStripesById(@Param("id") UUID id);
+
+    // version is bumped: an entity loaded before the change must not write the old stripe count back
+    @Modifying
+    @Query("UPDATE Account a SET a.stripes = :stripes, a.version = a.version + 1 WHERE a.id = :id")
+    int updateStripes(@Param("id") UUID id, @Param("stripes") int stripes);
+
+    // 8. LEDGER ENGINE (see LedgerEngine)
+    // Net balance change of one group-committed batch (signed). Already checked in memory; the guard is
+    // the last line of defence, 0 rows: account missing or the balance would go negative.
+    @Modifying
+    @Query("UPDATE Account a SET a.balance = a.balance + :delta, a.version = a.version + 1, a.updatedAt = :now "
+            + "WHERE a.id = :id AND a.balance + :delta >= 0")
+    int adjustBalance(@Param("id") UUID id, @Param("delta") BigDecimal delta, @Param("now") LocalDateTime now);
+
+    // Startup load of every balance (hot account buckets included)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT a.id AS id, a.balance AS balance, a.stripedBalance AS stripedBalance FROM Account a")
+    Stream<AccountBalanceView> streamBalances();
+
+    interface AccountBalanceView {
+        UUID getId();
+
+        BigDecimal getBalance();
+
+        BigDecimal getStripedBalance();
+    }
+
+    interface AccountDirectoryView {
+        UUID getId();
+
+        String getNumber();
+
+        UUID getOwnerId();
+    }
 }
\ No newline at end of file
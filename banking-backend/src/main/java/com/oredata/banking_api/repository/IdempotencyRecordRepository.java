@@ -0,0 +1,57 @@
+package com.oredata.banking_api.repository;
+
+import com.oredata.banking_api.model.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+// Each method is its own short transaction: the claim must be visible to other nodes
+// before the money movement starts. complete joins the caller's transaction (the operation's).
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // 1 = claimed by this request, 0 = the key already exists
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO idempotency_keys (id, operation, request_hash, created_at) "
+            + "VALUES (:id, :operation, :requestHash, :createdAt) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int claim(@Param("id") String id, @Param("operation") String operation,
+            @Param("requestHash") String requestHash, @Param("createdAt") LocalDateTime createdAt);
+
+    // 1 = stored on the request's own claim (created at claimedAt), 0 = the claim was taken over.
+    // Locks the row until the operation commits, so a takeover waits for the outcome.
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.response = :response, r.completedAt = :completedAt "
+            + "WHERE r.id = :id AND r.createdAt = :claimedAt AND r.response IS NULL")
+    int complete(@Param("id") String id, @Param("claimedAt") LocalDateTime claimedAt,
+            @Param("response") String response, @Param("completedAt") LocalDateTime completedAt);
+
+    // The operation failed: give the key back so the client can retry it (unless it was taken over)
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.id = :id AND r.createdAt = :claimedAt AND r.response IS NULL")
+    int release(@Param("id") String id, @Param("claimedAt") LocalDateTime claimedAt);
+
+    // Claimed before the cutoff and still without a response: the request that claimed it is gone or
+    // stuck. If it is still running, complete fails for it afterwards and it rolls back.
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.id = :id AND r.response IS NULL AND r.createdAt < :cutoff")
+    int releaseIfStale(@Param("id") String id, @Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.id = :id AND r.createdAt < :cutoff")
+    int deleteIfExpired(@Param("id") String id, @Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :cutoff")
+    int deleteExpired(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,21 @@
+package com.oredata.banking_api.repository;
+
+import com.oredata.banking_api.model.entity.NumberAllocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.LockModeType;
+
+import java.util.Optional;
+
+@Repository
+public interface NumberAllocationRepository extends JpaRepository<NumberAllocation, String> {
+
+    // SELECT ... FOR UPDATE: one node at a time moves a counter
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT n FROM NumberAllocation n WHERE n.name = :name")
+    Optional<NumberAllocation> findForUpdate(@Param("name") String name);
+}
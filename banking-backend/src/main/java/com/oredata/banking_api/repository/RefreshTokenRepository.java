@@ -0,0 +1,34 @@
+package com.oredata.banking_api.repository;
+
+import com.oredata.banking_api.model.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+    // 1 = used up by this request, 0 = already used (or expired) meanwhile
+    @Modifying
+    @Transactional
+    @Query("UPDATE RefreshToken t SET t.usedAt = :now "
+            + "WHERE t.tokenHash = :tokenHash AND t.usedAt IS NULL AND t.expiresAt > :now")
+    int markUsed(@Param("tokenHash") String tokenHash, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken t WHERE t.family = :family")
+    int deleteFamily(@Param("family") UUID family);
+
+    // Used tokens are kept until they expire, to recognise a replay
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken t WHERE t.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
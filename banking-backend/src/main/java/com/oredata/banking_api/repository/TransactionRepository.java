@@ -1,16 +1,23 @@
 package com.oredata.banking_api.repository;
 
 import com.oredata.banking_api.model.entity.Transaction;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
-import java.util.UUID;
 
+// Account history is read through AccountPostingRepository
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
 
-    // The reason we write "From_Id" is to prevent JPA from misunderstanding the
-    // word 'From'.
-    List<Transaction> findByFrom_IdOrTo_IdOrderByTransactionDateDesc(UUID fromId, UUID toId);
-}
\ No newline at end of file
+    // POSTINGS BACKFILL (see AccountPostingBackfill)
+    // Next chunk of transactions written before account_postings existed, in id order
+    @Query("SELECT t FROM Transaction t WHERE t.id > :afterId "
+            + "AND NOT EXISTS (SELECT 1 FROM AccountPosting p WHERE p.transaction.id = t.id "
+            + "AND p.postedAt = t.transactionDate) "
+            + "ORDER BY t.id")
+    List<Transaction> findWithoutPostings(@Param("afterId") Long afterId, Pageable pageable);
+}
@@ -0,0 +1,25 @@
+package com.oredata.banking_api.repository;
+
+import com.oredata.banking_api.model.entity.TransferRequest;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface TransferRequestRepository extends JpaRepository<TransferRequest, UUID> {
+
+    // Which of these journal entries were already applied (replay after a crash)
+    @Query("SELECT r.id FROM TransferRequest r WHERE r.id IN :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    // Status endpoint: outcome with the transaction and both account numbers in one query
+    @Query("SELECT r FROM TransferRequest r LEFT JOIN FETCH r.transaction t "
+            + "LEFT JOIN FETCH t.from LEFT JOIN FETCH t.to WHERE r.id = :id")
+    Optional<TransferRequest> findWithTransactionById(@Param("id") UUID id);
+}
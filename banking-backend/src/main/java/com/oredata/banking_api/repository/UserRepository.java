@@ -1,13 +1,58 @@
 package com.oredata.banking_api.repository;
 
+import com.oredata.banking_api.dto.responseDto.RegisterResponseDto;
 import com.oredata.banking_api.model.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.QueryHint;
+
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
+
+    // USER LISTING: rows come back as response DTOs, no User entities (nor their accounts) are loaded.
+    // Ordered by username, the unique index serves both the order and the seek.
+    String SELECT_LISTING = "SELECT new com.oredata.banking_api.dto.responseDto.RegisterResponseDto("
+            + "u.id, u.username, u.email, u.createdAt, u.updatedAt) FROM User u ";
+    String BY_USERNAME = "ORDER BY u.username";
+
     Optional<User> findByUsername(String username);
+
+    // KEYSET PAGINATION: username of the last row seen, see UserCursor
+    @Query(SELECT_LISTING + BY_USERNAME)
+    List<RegisterResponseDto> findListingPage(Pageable pageable);
+
+    @Query(SELECT_LISTING + "WHERE u.username > :username " + BY_USERNAME)
+    List<RegisterResponseDto> findListingPageAfter(@Param("username") String username, Pageable pageable);
+
+    // Full listing pulled in chunks (JDBC fetch size). Must be consumed inside a transaction.
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_LISTING + BY_USERNAME)
+    Stream<RegisterResponseDto> streamListing();
+
+    // Ownership-scoped: the user with this id, only if it is the caller
+    Optional<User> findByIdAndUsername(UUID id, String username);
+
+    boolean existsByIdAndUsername(UUID id, String username);
+
+    // Re-hashed password (upgrade on login), without loading the entity
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :password, u.updatedAt = :now WHERE u.username = :username")
+    int updatePassword(@Param("username") String username, @Param("password") String password,
+            @Param("now") LocalDateTime now);
 }
\ No newline at end of file
@@ -12,4 +12,8 @@ public interface AccountService {
     void deleteAccount(UUID id);
     List<Account> searchAccounts(String query);
     List<Account> getAccountsByUserId(UUID userId);
+
+    // Hot account mode: spread the balance over "stripes" bucket rows / fold it back
+    void promoteToHotAccount(UUID id, int stripes);
+    void demoteHotAccount(UUID id);
 }
\ No newline at end of file
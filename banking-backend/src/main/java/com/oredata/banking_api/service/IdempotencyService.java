@@ -0,0 +1,15 @@
+package com.oredata.banking_api.service;
+
+import com.oredata.banking_api.dto.responseDto.TransactionResponseDto;
+import com.oredata.banking_api.model.entity.Transaction;
+
+import java.util.function.Supplier;
+
+// Idempotency-Key handling for the money-moving endpoints
+public interface IdempotencyService {
+    // Runs the operation once per (user, key); a repeated key gets the first response back.
+    // request identifies the payload: the same key with a different request is rejected.
+    // The response is stored in the DB transaction of the operation's Transaction row.
+    TransactionResponseDto execute(String idempotencyKey, String operation, String request,
+            Supplier<Transaction> operationCall);
+}
@@ -0,0 +1,21 @@
+package com.oredata.banking_api.service;
+
+import com.oredata.banking_api.model.entity.User;
+
+import java.util.UUID;
+
+// Refresh tokens: renew a session without the password (and its hashing)
+public interface RefreshTokenService {
+    // New token family for a successful login; returns the token to hand to the client
+    String issue(User user);
+
+    // Uses up the token and returns its successor; InvalidRefreshTokenException if it is unknown,
+    // expired or was already used (the latter also revokes every token of that login)
+    Rotation rotate(String refreshToken);
+
+    // Logout: revokes the token and every token of the same login. Unknown tokens are ignored.
+    void revoke(String refreshToken);
+
+    record Rotation(String refreshToken, UUID userId, String username) {
+    }
+}
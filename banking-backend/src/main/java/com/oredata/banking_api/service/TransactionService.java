@@ -1,14 +1,31 @@
 package com.oredata.banking_api.service;
 
+import com.oredata.banking_api.dto.requestDto.TransactionCursor;
 import com.oredata.banking_api.dto.requestDto.TransactionDto;
+import com.oredata.banking_api.dto.responseDto.TransactionResponseDto;
+import com.oredata.banking_api.model.BatchTransferResult;
 import com.oredata.banking_api.model.entity.Transaction;
+import org.springframework.data.domain.Slice;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.math.BigDecimal; // Bunu eklemeyi unutma
 
 public interface TransactionService {
     Transaction transferFunds(TransactionDto transactionDto);
-    List<Transaction> getAccountHistory(UUID accountId);
+
+    // Many transfers in one DB transaction. Results are in request order.
+    // continueOnError=false rolls back everything on the first failing item.
+    List<BatchTransferResult> transferBatch(List<TransactionDto> transfers, boolean continueOnError);
+
+    // History reads return response DTOs straight from the query (one query per call)
+    List<TransactionResponseDto> getAccountHistory(UUID accountId);
+
+    // Newest first, starting after the given cursor (null for the first page)
+    Slice<TransactionResponseDto> getAccountHistoryPage(UUID accountId, TransactionCursor cursor, int size);
+
+    // Hands every history row to the consumer, newest first, inside one read-only transaction
+    void exportAccountHistory(UUID accountId, Consumer<TransactionResponseDto> consumer);
 
     Transaction withdraw(UUID accountId, BigDecimal amount);
     Transaction deposit(UUID accountId, BigDecimal amount);
@@ -0,0 +1,14 @@
+package com.oredata.banking_api.service;
+
+import com.oredata.banking_api.dto.requestDto.TransactionDto;
+import com.oredata.banking_api.model.TransferOutcome;
+
+import java.util.UUID;
+
+// Accept-then-process transfers: durable acknowledgement now, DB work later
+public interface TransferIntakeService {
+    // Returns the transfer id once the request is in the journal (survives a crash)
+    UUID submit(TransactionDto transactionDto);
+
+    TransferOutcome getStatus(UUID transferId);
+}
@@ -1,16 +1,30 @@
 package com.oredata.banking_api.service;
 
 import com.oredata.banking_api.dto.requestDto.LoginRequestDto;
+import com.oredata.banking_api.dto.requestDto.RefreshTokenRequestDto;
 import com.oredata.banking_api.dto.responseDto.LoginResponseDto;
 import com.oredata.banking_api.dto.requestDto.RegisterRequestDto; // NEW NAME
+import com.oredata.banking_api.dto.requestDto.UserCursor;
+import com.oredata.banking_api.dto.responseDto.RegisterResponseDto;
 import com.oredata.banking_api.model.entity.User;
-import java.util.List;
+import org.springframework.data.domain.Slice;
+
+import java.util.function.Consumer;
 
 public interface UserService {
     // Parameter is now RegisterRequestDto
     User registerUser(RegisterRequestDto registerRequestDto);
 
-    List<User> getAllUsers();
+    // Keyset pagination by username: cursor == null for the first page
+    Slice<RegisterResponseDto> getUsersPage(UserCursor cursor, int size);
+
+    // Full listing, one row at a time (for streaming responses)
+    void exportUsers(Consumer<RegisterResponseDto> consumer);
 
     LoginResponseDto login(LoginRequestDto loginRequestDto);
+
+    // New token pair for a refresh token (rotated), without the password
+    LoginResponseDto refresh(RefreshTokenRequestDto refreshTokenRequestDto);
+
+    void logout(RefreshTokenRequestDto refreshTokenRequestDto);
 }
\ No newline at end of file
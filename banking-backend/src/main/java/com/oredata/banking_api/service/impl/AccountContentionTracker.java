@@ -0,0 +1,46 @@
+package com.oredata.banking_api.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Bookkeeping for RetryingTransactionService: conflict metrics and a per-account retry budget.
+// Each account may be retried only so often per time window, so one hot account cannot cause a retry storm.
+@Component
+public class AccountContentionTracker {
+
+    private final Cache<UUID, AtomicInteger> retriesInWindow;
+    private final int retryBudget;
+    private final MeterRegistry meterRegistry;
+
+    public AccountContentionTracker(MeterRegistry meterRegistry,
+            @Value("${banking.retry.window:10s}") Duration window,
+            @Value("${banking.retry.account-budget:50}") int retryBudget) {
+        this.meterRegistry = meterRegistry;
+        this.retryBudget = retryBudget;
+        // Fixed windows: the counter entry expires "window" after the first retry
+        this.retriesInWindow = Caffeine.newBuilder().expireAfterWrite(window).build();
+    }
+
+    public void recordConflict(String operation) {
+        meterRegistry.counter("banking.account.lock.conflicts", "operation", operation).increment();
+    }
+
+    // Takes one retry from each account's budget. false = a budget is used up, do not retry.
+    public boolean tryAcquireRetry(String operation, Collection<UUID> accountIds) {
+        for (UUID accountId : accountIds) {
+            if (retriesInWindow.get(accountId, id -> new AtomicInteger()).incrementAndGet() > retryBudget) {
+                return false;
+            }
+        }
+        meterRegistry.counter("banking.account.lock.retries", "operation", operation).increment();
+        return true;
+    }
+}
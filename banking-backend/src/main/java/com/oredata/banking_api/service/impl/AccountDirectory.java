@@ -0,0 +1,111 @@
+package com.oredata.banking_api.service.impl;
+
+import com.oredata.banking_api.exception.ResourceNotFoundException;
+import com.oredata.banking_api.repository.AccountRepository;
+import com.oredata.banking_api.repository.AccountRepository.AccountDirectoryView;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+// ACCOUNT DIRECTORY (transfers by account number)
+// In-memory map account number -> (account id, owner id): a hit resolves the number without a query.
+// Only the mapping is cached, never balances: a transfer still updates the account row, and an
+// account deleted meanwhile fails there (0 rows updated -> not found).
+// Loaded at startup and kept current by AccountServiceImpl (create/delete, after commit).
+// Other instances create accounts too, so by default a miss costs one indexed lookup and what it
+// finds is added. Only with banking.account-directory.single-node=true is a miss final.
+@Slf4j
+@Component
+public class AccountDirectory {
+
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate readTransaction;
+    private final boolean singleNode;
+
+    private final Map<String, Entry> byNumber = new ConcurrentHashMap<>();
+
+    public AccountDirectory(AccountRepository accountRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${banking.account-directory.single-node:false}") boolean singleNode) {
+        this.accountRepository = accountRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.singleNode = singleNode;
+    }
+
+    @PostConstruct
+    void load() {
+        readTransaction.executeWithoutResult(status -> {
+            try (Stream<AccountDirectoryView> rows = accountRepository.streamDirectory()) {
+                rows.forEach(row -> byNumber.put(row.getNumber(), new Entry(row.getId(), row.getOwnerId())));
+            }
+        });
+        log.info("Account directory: {} accounts loaded", byNumber.size());
+    }
+
+    // Account id of a receiver number; ResourceNotFoundException if there is no such account
+    public UUID resolve(String number) {
+        if (!AccountNumberGenerator.isValid(number)) {
+            throw new IllegalArgumentException("Invalid account number");
+        }
+        Entry entry = byNumber.get(number);
+        if (entry == null && !singleNode) {
+            entry = load(List.of(number)).get(number);
+        }
+        if (entry == null) {
+            throw new ResourceNotFoundException("Receiver account not found with Number");
+        }
+        return entry.accountId();
+    }
+
+    // Batch form: number -> account id for the numbers that exist (no exception for the rest)
+    public Map<String, UUID> resolveAll(Collection<String> numbers) {
+        Map<String, UUID> ids = new HashMap<>();
+        List<String> unknown = new ArrayList<>();
+        for (String number : numbers) {
+            Entry entry = byNumber.get(number);
+            if (entry != null) {
+                ids.put(number, entry.accountId());
+            } else if (!singleNode) {
+                unknown.add(number);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            load(unknown).forEach((number, entry) -> ids.put(number, entry.accountId()));
+        }
+        return ids;
+    }
+
+    public void add(String number, UUID accountId, UUID ownerId) {
+        byNumber.put(number, new Entry(accountId, ownerId));
+    }
+
+    public void remove(String number) {
+        byNumber.remove(number);
+    }
+
+    // Fallback for accounts created on other nodes
+    private Map<String, Entry> load(List<String> numbers) {
+        Map<String, Entry> found = new HashMap<>();
+        for (AccountDirectoryView row : accountRepository.findDirectoryEntriesByNumberIn(numbers)) {
+            add(row.getNumber(), row.getId(), row.getOwnerId());
+            found.put(row.getNumber(), new Entry(row.getId(), row.getOwnerId()));
+        }
+        return found;
+    }
+
+    public record Entry(UUID accountId, UUID ownerId) {
+    }
+}
@@ -0,0 +1,114 @@
+package com.oredata.banking_api.service.impl;
+
+import com.oredata.banking_api.model.entity.NumberAllocation;
+import com.oredata.banking_api.repository.NumberAllocationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+// ACCOUNT NUMBERS
+// Format: "0" + 8-digit serial + Luhn check digit = 10 digits. The old random generator only produced
+// 1000000000..9999999999, so generated numbers can never collide with existing ones.
+// Serials come from the "account_number" row of number_allocations: each node reserves a block
+// (one short DB transaction per block-size accounts) and hands numbers out from memory, so account
+// creation never checks for uniqueness. Numbers of a block that is not used up (restart) are skipped.
+@Component
+public class AccountNumberGenerator {
+
+    private static final String COUNTER = "account_number";
+    private static final long MAX_SERIAL = 99_999_999L;
+
+    private final NumberAllocationRepository allocationRepository;
+    private final TransactionTemplate blockTransaction;
+    private final int blockSize;
+
+    // Current block: [next, end), guarded by lock. A ReentrantLock instead of synchronized: block
+    // reservation does JDBC while holding it, which would pin a virtual thread to its carrier.
+    private final ReentrantLock lock = new ReentrantLock();
+    private long next;
+    private long end;
+
+    public AccountNumberGenerator(NumberAllocationRepository allocationRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${banking.account-number.block-size:100}") int blockSize) {
+        this.allocationRepository = allocationRepository;
+        // Own transaction: a reserved block stays reserved even if the account insert rolls back
+        this.blockTransaction = new TransactionTemplate(transactionManager);
+        this.blockTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+    }
+
+    public String next() {
+        long serial;
+        lock.lock();
+        try {
+            if (next == end) {
+                next = reserveBlock();
+                end = next + blockSize;
+            }
+            serial = next++;
+        } finally {
+            lock.unlock();
+        }
+        if (serial > MAX_SERIAL) {
+            throw new IllegalStateException("Account number range exhausted");
+        }
+        String body = String.format("0%08d", serial);
+        return body + checkDigit(body);
+    }
+
+    // Numbers from this generator must carry a valid check digit (catches typos before any lookup)
+    public static boolean isValid(String number) {
+        if (number == null || number.length() != 10 || !number.chars().allMatch(Character::isDigit)) {
+            return false;
+        }
+        if (number.charAt(0) != '0') {
+            return true; // Issued by the old random generator, no check digit
+        }
+        return checkDigit(number.substring(0, 9)) == number.charAt(9) - '0';
+    }
+
+    // Returns the first serial of a newly reserved block
+    private long reserveBlock() {
+        for (int attempt = 1;; attempt++) {
+            try {
+                return blockTransaction.execute(status -> {
+                    NumberAllocation counter = allocationRepository.findForUpdate(COUNTER)
+                            .orElseGet(() -> NumberAllocation.builder().name(COUNTER).nextValue(0).build());
+                    long start = counter.getNextValue();
+                    counter.setNextValue(start + blockSize);
+                    allocationRepository.save(counter);
+                    return start;
+                });
+            } catch (DataIntegrityViolationException e) {
+                // Another node created the counter row at the same time; it exists now
+                if (attempt >= 3) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    // Luhn: double every second digit from the right (starting next to the check digit)
+    private static int checkDigit(String digits) {
+        int sum = 0;
+        boolean doubled = true;
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            int digit = digits.charAt(i) - '0';
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return (10 - sum % 10) % 10;
+    }
+}
@@ -0,0 +1,79 @@
+package com.oredata.banking_api.service.impl;
+
+import com.oredata.banking_api.model.entity.AccountPosting;
+import com.oredata.banking_api.model.entity.Transaction;
+import com.oredata.banking_api.repository.AccountPostingRepository;
+import com.oredata.banking_api.repository.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+// One-off job: creates account_postings rows for transactions written before the table existed.
+// Databases managed by Flyway get them from migration V3 on upgrade; this job is for databases
+// without it. Enable with banking.postings.backfill.enabled=true for one deployment. Runs in the background
+// after startup, one DB transaction per chunk (keyset over transactions.id), so it can be stopped and
+// restarted at any time: transactions that already have postings are skipped.
+// Until it finishes, history of old accounts is incomplete.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "banking.postings.backfill.enabled", havingValue = "true")
+public class AccountPostingBackfill {
+
+    private final TransactionRepository transactionRepository;
+    private final AccountPostingRepository accountPostingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public AccountPostingBackfill(TransactionRepository transactionRepository,
+            AccountPostingRepository accountPostingRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${banking.postings.backfill.chunk-size:1000}") int chunkSize) {
+        this.transactionRepository = transactionRepository;
+        this.accountPostingRepository = accountPostingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread worker = new Thread(this::run, "postings-backfill");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    // Synchronous run (the startup listener calls it on its own thread)
+    public void run() {
+        long lastId = 0;
+        long total = 0;
+        try {
+            while (true) {
+                long afterId = lastId;
+                List<Transaction> chunk = transactionTemplate.execute(status -> {
+                    List<Transaction> transactions = transactionRepository.findWithoutPostings(
+                            afterId, PageRequest.of(0, chunkSize));
+                    accountPostingRepository.saveAll(transactions.stream()
+                            .flatMap(t -> AccountPosting.of(t).stream())
+                            .toList());
+                    return transactions;
+                });
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                lastId = chunk.get(chunk.size() - 1).getId();
+                total += chunk.size();
+                log.info("Postings backfill: {} transactions done (last id {})", total, lastId);
+            }
+            log.info("Postings backfill finished: {} transactions", total);
+        } catch (RuntimeException e) {
+            log.error("Postings backfill stopped after {} transactions (last id {}); restart to resume", total, lastId, e);
+        }
+    }
+}
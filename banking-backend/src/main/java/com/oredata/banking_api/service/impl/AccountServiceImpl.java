@@ -9,102 +9,156 @@ import com.oredata.banking_api.repository.AccountRepository;
 import com.oredata.banking_api.repository.UserRepository;
 import com.oredata.banking_api.service.AccountService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.oredata.banking_api.exception.AccessDeniedException;
 import com.oredata.banking_api.exception.ResourceNotFoundException;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class AccountServiceImpl implements AccountService {
 
+    private static final int SEARCH_LIMIT = 20;
+
     private final AccountRepository accountRepository;
     private final UserRepository userRepository;
+    private final StripedBalances stripedBalances;
+    private final AccountNumberGenerator accountNumberGenerator;
+    private final ObjectProvider<LedgerEngine> ledgerEngine; // Only present in ledger engine mode
+    private final AccountDirectory accountDirectory;
 
     // Get current username
     private String getCurrentUsername() {
         return SecurityContextHolder.getContext().getAuthentication().getName();
     }
 
-    @Override
-    public Account createAccount(AccountDto accountDto) {
-        // User check
-        User user = userRepository.findById(accountDto.getUserId())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+    // Only called when an owner-scoped lookup came back empty: 404 if the row does not exist, else 403
+    private RuntimeException accountNotAccessible(UUID id) {
+        if (!accountRepository.existsById(id)) {
+            return new ResourceNotFoundException("Account not found");
+        }
+        return new AccessDeniedException("You do not have permission to access this account!");
+    }
 
-        // Prevent opening account for others
-        if (!user.getUsername().equals(getCurrentUsername())) {
-            throw new AccessDeniedException("You cannot create an account for someone else!");
+    private RuntimeException userNotAccessible(UUID userId, String accessDeniedMessage) {
+        if (!userRepository.existsById(userId)) {
+            return new ResourceNotFoundException("User not found");
         }
+        return new AccessDeniedException(accessDeniedMessage);
+    }
+
+    @Override
+    public Account createAccount(AccountDto accountDto) {
+        // User check, in the query: prevent opening account for others
+        // (the user is loaded anyway, the new row and the response need it)
+        User user = userRepository.findByIdAndUsername(accountDto.getUserId(), getCurrentUsername())
+                .orElseThrow(() -> userNotAccessible(accountDto.getUserId(),
+                        "You cannot create an account for someone else!"));
 
         // Create Account
         Account account = Account.builder()
                 .name(accountDto.getName())
                 .balance(accountDto.getBalance())
-                .number(generateUniqueAccountNumber())
+                .number(accountNumberGenerator.next()) // Unique by construction, no lookup
                 .user(user)
                 .build();
 
-        return accountRepository.save(account);
+        Account saved = accountRepository.save(account); // Committed here (no surrounding transaction)
+        accountDirectory.add(saved.getNumber(), saved.getId(), user.getId());
+        return saved;
     }
 
     @Override
     public Account getAccountById(UUID id) {
-        Account account = accountRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
+        // Security: Only owner can see (account and owner in one query)
+        return accountRepository.findByIdAndUser_Username(id, getCurrentUsername())
+                .orElseThrow(() -> accountNotAccessible(id));
+    }
 
-        // Security: Only owner can see
-        if (!account.getUser().getUsername().equals(getCurrentUsername())) {
-            throw new AccessDeniedException("You do not have permission to access this account!");
+    // Owner check without loading the account
+    private void checkOwnership(UUID id) {
+        if (!accountRepository.existsByIdAndUser_Username(id, getCurrentUsername())) {
+            throw accountNotAccessible(id);
         }
-
-        return account;
     }
 
     @Override
+    @Transactional
     public Account updateAccount(UUID id, AccountDto accountDto) {
-        Account account = getAccountById(id); // Security check is done here
+        checkOwnership(id);
 
+        // Targeted UPDATE of the name: balance and stripes stay whatever concurrent writers made them
         if (accountDto.getName() != null && !accountDto.getName().isEmpty()) {
-            account.setName(accountDto.getName());
+            accountRepository.rename(id, accountDto.getName(), LocalDateTime.now());
         }
-        return accountRepository.save(account);
+        return getAccountById(id);
     }
 
     @Override
+    @Transactional
     public void deleteAccount(UUID id) {
         Account account = getAccountById(id); // Security check is done here
+        if (stripedBalances.isStriped(id)) {
+            stripedBalances.demote(id); // Bucket rows reference the account
+        }
         accountRepository.delete(account);
+
+        // Drop the in-memory state once the row is really gone
+        String number = account.getNumber();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accountDirectory.remove(number);
+                ledgerEngine.ifAvailable(engine -> engine.evict(id));
+            }
+        });
     }
 
     @Override
     public List<Account> searchAccounts(String query) {
-        // Secure search
-        return accountRepository.searchAccountsForUser(getCurrentUsername(), query);
+        // Secure search (own accounts only), best matches first
+        String term = query.trim().toLowerCase(Locale.ROOT);
+        String escaped = term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return accountRepository.searchAccountsForUser(getCurrentUsername(), term,
+                "%" + escaped + "%", escaped + "%", PageRequest.of(0, SEARCH_LIMIT));
     }
 
     @Override
     public List<Account> getAccountsByUserId(UUID userId) {
-        User requestedUser = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        String username = getCurrentUsername();
+        List<Account> accounts = accountRepository.findByUser_IdAndUser_Username(userId, username);
 
-        if (!requestedUser.getUsername().equals(getCurrentUsername())) {
-            throw new AccessDeniedException("You cannot see someone else's account list!");
+        // Empty: no accounts yet, or not the caller's user id
+        if (accounts.isEmpty() && !userRepository.existsByIdAndUsername(userId, username)) {
+            throw userNotAccessible(userId, "You cannot see someone else's account list!");
         }
+        return accounts;
+    }
 
-        return accountRepository.findByUserId(userId);
+    @Override
+    @Transactional
+    public void promoteToHotAccount(UUID id, int stripes) {
+        if (stripes < 2 || stripes > 64) {
+            throw new IllegalArgumentException("Stripes must be between 2 and 64");
+        }
+        checkOwnership(id);
+        stripedBalances.promote(id, stripes);
     }
 
-    private String generateUniqueAccountNumber() {
-        String accountNumber;
-        do {
-            // Generate a random 10-digit number (e.g., 1000000000 to 9999999999)
-            long randomNum = (long) (Math.floor(Math.random() * 9_000_000_000L) + 1_000_000_000L);
-            accountNumber = String.valueOf(randomNum);
-        } while (accountRepository.existsByNumber(accountNumber)); // Ensure Uniqueness
-        return accountNumber;
+    @Override
+    @Transactional
+    public void demoteHotAccount(UUID id) {
+        checkOwnership(id);
+        stripedBalances.demote(id);
     }
 }
\ No newline at end of file
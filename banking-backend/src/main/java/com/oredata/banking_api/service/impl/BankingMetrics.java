@@ -0,0 +1,68 @@
+package com.oredata.banking_api.service.impl;
+
+import com.oredata.banking_api.exception.InsufficientBalanceException;
+import com.oredata.banking_api.exception.ServiceBusyException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Business metrics, scraped from /actuator/prometheus:
+// - banking.operations: timer per operation (transfer, deposit, withdraw, history, login) and outcome,
+//   with p50/p95/p99 and histogram buckets (aggregatable across nodes)
+// - banking.transactions.rejected: money movements refused for insufficient balance
+// Lock conflicts are counted by AccountContentionTracker, JWT failures by JwtAuthenticationFilter,
+// connection pool usage/wait by Spring Boot (hikaricp.connections.*).
+@Component
+public class BankingMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public BankingMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T time(String operation, Supplier<T> action) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            T result = action.get();
+            outcome = "success";
+            return result;
+        } catch (InsufficientBalanceException e) {
+            outcome = "insufficient_balance";
+            meterRegistry.counter("banking.transactions.rejected", "operation", operation,
+                    "reason", "insufficient_balance").increment();
+            throw e;
+        } catch (ConcurrencyFailureException e) {
+            outcome = "conflict"; // Still conflicting after all retries
+            throw e;
+        } catch (AuthenticationException e) {
+            outcome = "bad_credentials";
+            throw e;
+        } catch (ServiceBusyException e) {
+            outcome = "busy"; // Refused by a full pool (password hashing)
+            throw e;
+        } finally {
+            timer(operation, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Registered on first use, then looked up
+    private Timer timer(String operation, String outcome) {
+        return Timer.builder("banking.operations")
+                .description("Banking operations, service level")
+                .tags("operation", operation, "outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                // Bounds the bucket count of the histogram
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry);
+    }
+}
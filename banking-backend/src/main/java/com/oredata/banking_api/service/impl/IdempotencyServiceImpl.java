@@ -0,0 +1,277 @@
+package com.oredata.banking_api.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.oredata.banking_api.dto.responseDto.TransactionResponseDto;
+import com.oredata.banking_api.exception.IdempotencyConflictException;
+import com.oredata.banking_api.exception.LedgerOutcomeUnknownException;
+import com.oredata.banking_api.mapper.TransactionMapper;
+import com.oredata.banking_api.model.entity.IdempotencyRecord;
+import com.oredata.banking_api.model.entity.Transaction;
+import com.oredata.banking_api.repository.IdempotencyRecordRepository;
+import com.oredata.banking_api.service.IdempotencyService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+// IDEMPOTENCY KEYS (Idempotency-Key header on /transfer, /deposit, /withdraw)
+// Two tiers: completed responses are cached in memory for the TTL; the idempotency_keys table is the
+// source of truth across nodes and restarts. A new key is claimed in the table (INSERT .. ON CONFLICT
+// DO NOTHING) before the operation runs; the response is stored by the operation's own DB transaction
+// (TransactionCompletion), so it commits with the money movement or not at all, and a retry that
+// hits the cache or the table never touches account rows.
+// Duplicates that arrive while the first request is running wait for it: on this node on its future,
+// on other nodes by polling the row, both up to wait-timeout (then 409).
+// A claim without a response therefore means nothing was committed (yet): the key is given back when
+// the operation fails, and taken over after claim-timeout if its node died before it could.
+// The takeover is fenced: the response is only stored on the claim its request made (same created_at).
+// A request still running when its claim is taken over finds no claim at commit and rolls back
+// (IdempotencyConflictException), one that stored its response first makes the takeover find a
+// completed key. Either way only one of them moves the money.
+@Slf4j
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 100;
+    private static final long POLL_MILLIS = 50;
+    private static final long PURGE_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final TransactionMapper transactionMapper;
+    private final Duration ttl;
+    private final long waitTimeoutNanos;
+    private final Duration claimTimeout;
+
+    private final Cache<String, Completed> completed;
+    // Requests with a key currently running on this node
+    private final ConcurrentHashMap<String, CompletableFuture<Void>> running = new ConcurrentHashMap<>();
+    private final AtomicLong nextPurge = new AtomicLong();
+
+    public IdempotencyServiceImpl(IdempotencyRecordRepository repository,
+            ObjectMapper objectMapper,
+            TransactionMapper transactionMapper,
+            @Value("${banking.idempotency.ttl:24h}") Duration ttl,
+            @Value("${banking.idempotency.cache-size:100000}") long cacheSize,
+            @Value("${banking.idempotency.wait-timeout:10s}") Duration waitTimeout,
+            @Value("${banking.idempotency.claim-timeout:1m}") Duration claimTimeout) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.transactionMapper = transactionMapper;
+        this.ttl = ttl;
+        this.waitTimeoutNanos = waitTimeout.toNanos();
+        this.claimTimeout = claimTimeout;
+        this.completed = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(cacheSize)
+                .build();
+    }
+
+    @Override
+    public TransactionResponseDto execute(String idempotencyKey, String operation, String request,
+            Supplier<Transaction> operationCall) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String id = recordId(SecurityContextHolder.getContext().getAuthentication().getName(), idempotencyKey);
+        String requestHash = sha256(operation + "|" + request);
+        long deadline = System.nanoTime() + waitTimeoutNanos;
+
+        while (true) {
+            Completed done = completed.getIfPresent(id);
+            if (done != null) {
+                return replay(done, requestHash);
+            }
+            CompletableFuture<Void> mine = new CompletableFuture<>();
+            CompletableFuture<Void> first = running.putIfAbsent(id, mine);
+            if (first != null) {
+                // Done or failed (key released), either way look again
+                await(first, deadline);
+                continue;
+            }
+            try {
+                return executeOnce(id, operation, requestHash, operationCall, deadline);
+            } finally {
+                running.remove(id, mine);
+                mine.complete(null);
+            }
+        }
+    }
+
+    // Only one request per key and node gets here at a time
+    private TransactionResponseDto executeOnce(String id, String operation, String requestHash,
+            Supplier<Transaction> operationCall, long deadline) {
+        while (true) {
+            // The claim's created_at identifies it, truncated to what the column stores
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+            LocalDateTime cutoff = now.minus(ttl);
+            // Claim first: a new key (the common case) costs one statement before the operation
+            purgeExpired(cutoff);
+            if (repository.claim(id, operation, requestHash, now) == 1) {
+                return run(id, now, requestHash, operationCall);
+            }
+
+            IdempotencyRecord record = repository.findById(id).orElse(null);
+            if (record == null) {
+                continue; // Released in the meantime
+            }
+            if (record.getCreatedAt().isBefore(cutoff)) {
+                repository.deleteIfExpired(id, cutoff);
+                continue;
+            }
+
+            if (record.getResponse() != null) {
+                Completed done = new Completed(record.getRequestHash(), read(record.getResponse()));
+                completed.put(id, done);
+                return replay(done, requestHash);
+            }
+            if (!record.getRequestHash().equals(requestHash)) {
+                throw keyReused();
+            }
+            if (record.getCreatedAt().isBefore(now.minus(claimTimeout))) {
+                repository.releaseIfStale(id, now.minus(claimTimeout));
+                continue;
+            }
+            // Running on another node
+            if (System.nanoTime() > deadline) {
+                throw inProgress();
+            }
+            pause();
+        }
+    }
+
+    private TransactionResponseDto run(String id, LocalDateTime claimedAt, String requestHash,
+            Supplier<Transaction> operationCall) {
+        AtomicReference<TransactionResponseDto> stored = new AtomicReference<>();
+        Transaction transaction;
+        try {
+            transaction = TransactionCompletion.bind(recorded -> {
+                TransactionResponseDto response = transactionMapper.toDto(recorded);
+                if (repository.complete(id, claimedAt, write(response), LocalDateTime.now()) == 0) {
+                    // Taken over as stale: the retry owns the key, this operation must not commit
+                    throw new IdempotencyConflictException(
+                            "The Idempotency-Key was taken over by a retry, this request was not applied");
+                }
+                stored.set(response);
+            }, operationCall);
+        } catch (LedgerOutcomeUnknownException e) {
+            // The engine may still commit it (with the response): keep the key claimed until it is stale
+            throw e;
+        } catch (RuntimeException e) {
+            // Rolled back or never applied, the response with it: the client may retry the key
+            repository.release(id, claimedAt);
+            throw e;
+        }
+
+        TransactionResponseDto response = stored.get();
+        if (response == null) {
+            // The operation did not record a Transaction through the services: store it on its own
+            response = transactionMapper.toDto(transaction);
+            if (repository.complete(id, claimedAt, write(response), LocalDateTime.now()) == 0) {
+                log.warn("Idempotency key {} was taken over while its operation ran outside the services", id);
+            }
+        }
+        completed.put(id, new Completed(requestHash, response));
+        return response;
+    }
+
+    private TransactionResponseDto replay(Completed done, String requestHash) {
+        if (!done.requestHash().equals(requestHash)) {
+            throw keyReused();
+        }
+        return done.response();
+    }
+
+    private void await(CompletableFuture<Void> first, long deadline) {
+        try {
+            first.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw inProgress();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw inProgress();
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(POLL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw inProgress();
+        }
+    }
+
+    // At most once per interval and node, piggybacked on a claim
+    private void purgeExpired(LocalDateTime cutoff) {
+        long now = System.currentTimeMillis();
+        long due = nextPurge.get();
+        if (now >= due && nextPurge.compareAndSet(due, now + PURGE_INTERVAL_MILLIS)) {
+            int purged = repository.deleteExpired(cutoff);
+            log.debug("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private String write(TransactionResponseDto response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private TransactionResponseDto read(String response) {
+        try {
+            return objectMapper.readValue(response, TransactionResponseDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Keys are per user. Hashed to a fixed length: usernames and keys together can be longer than the
+    // column; the username's length keeps "a:b" + "c" and "a" + "b:c" apart
+    static String recordId(String username, String idempotencyKey) {
+        return sha256(username.length() + ":" + username + ":" + idempotencyKey);
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static IllegalArgumentException keyReused() {
+        return new IllegalArgumentException("Idempotency-Key was already used for a different request");
+    }
+
+    private static IdempotencyConflictException inProgress() {
+        return new IdempotencyConflictException("A request with this Idempotency-Key is still being processed");
+    }
+
+    private record Completed(String requestHash, TransactionResponseDto response) {
+    }
+}
@@ -0,0 +1,531 @@
+package com.oredata.banking_api.service.impl;
+
+import com.oredata.banking_api.exception.IdempotencyConflictException;
+import com.oredata.banking_api.exception.InsufficientBalanceException;
+import com.oredata.banking_api.exception.LedgerUnavailableException;
+import com.oredata.banking_api.exception.ResourceNotFoundException;
+import com.oredata.banking_api.model.entity.Account;
+import com.oredata.banking_api.model.entity.AccountPosting;
+import com.oredata.banking_api.model.entity.Transaction;
+import com.oredata.banking_api.model.entity.enums.TransactionStatus;
+import com.oredata.banking_api.model.entity.enums.TransactionType;
+import com.oredata.banking_api.repository.AccountPostingRepository;
+import com.oredata.banking_api.repository.AccountRepository;
+import com.oredata.banking_api.repository.TransactionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// LEDGER ENGINE (optional: banking.ledger.engine.enabled=true, used by LedgerTransactionService)
+// Balances live in memory, split into partitions by account id. Each partition has exactly one
+// writer thread that runs the commands of its queue in order, so balance checks and updates need
+// no locks and never wait for the database.
+// - Transfer: target partition (does the account exist?) -> source partition (check + debit).
+// - Debits are applied in memory when decided, credits (transfers, deposits) only once their batch
+//   has committed. Money that is not in the database yet cannot be spent, so rejecting an entry never
+//   pulls the ground from under another one.
+// - Every accepted operation is appended to the journal when it is decided. One persister thread
+//   writes the journal to accounts/transactions in batches, one DB transaction per batch (group
+//   commit); callers get their result after that commit.
+// - On startup all balances are loaded from the database; accounts created later are loaded on
+//   first use by a loader thread, the command waits for it off the writer thread. While the engine
+//   is enabled it must be the only writer of balances.
+// - A batch that cannot be written is retried with backoff. Entries of accounts deleted in the
+//   meantime fail with 404 and the rest is written; if the batch still fails after every attempt,
+//   its operations fail with 503. A failed operation's debit is given back before its caller is
+//   answered, so a balance in memory is never more than the database holds and the engine keeps running.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "banking.ledger.engine.enabled", havingValue = "true")
+public class LedgerEngine {
+
+    private static final long POLL_MILLIS = 100;
+    private static final long SHUTDOWN_MILLIS = 30_000;
+    private static final long MAX_BACKOFF_MILLIS = 5_000;
+    private static final int LOADER_THREADS = 2;
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final AccountPostingRepository accountPostingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final int writeAttempts;
+    private final long writeBackoffMillis;
+
+    private final Partition[] partitions;
+    private final BlockingQueue<JournalEntry> journal = new LinkedBlockingQueue<>();
+    private final Thread persister;
+    private final ExecutorService loader = Executors.newFixedThreadPool(LOADER_THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "ledger-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicInteger inFlight = new AtomicInteger(); // Admitted, result not yet completed
+
+    private volatile boolean running;  // Accepting new operations
+    private volatile boolean stopped;  // Writer threads exit
+
+    public LedgerEngine(AccountRepository accountRepository,
+            TransactionRepository transactionRepository,
+            AccountPostingRepository accountPostingRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${banking.ledger.engine.partitions:4}") int partitionCount,
+            @Value("${banking.ledger.engine.queue-capacity:10000}") int queueCapacity,
+            @Value("${banking.ledger.engine.batch-size:500}") int batchSize,
+            @Value("${banking.ledger.engine.write-attempts:5}") int writeAttempts,
+            @Value("${banking.ledger.engine.write-backoff:100ms}") Duration writeBackoff) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.accountPostingRepository = accountPostingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.writeAttempts = writeAttempts;
+        this.writeBackoffMillis = writeBackoff.toMillis();
+        this.partitions = new Partition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitions[i] = new Partition(i);
+        }
+        this.persister = new Thread(this::persistLoop, "ledger-persister");
+    }
+
+    @PostConstruct
+    void start() {
+        // Rebuild: load every balance before the writer threads start (Thread.start publishes the maps)
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<AccountRepository.AccountBalanceView> rows = accountRepository.streamBalances()) {
+                rows.forEach(row -> partitionOf(row.getId()).balances.put(row.getId(),
+                        row.getBalance().add(row.getStripedBalance() == null ? BigDecimal.ZERO : row.getStripedBalance())));
+            }
+        });
+        running = true;
+        for (Partition partition : partitions) {
+            partition.writer.start();
+        }
+        persister.start();
+    }
+
+    // Stops intake and waits until every admitted operation is committed (or failed)
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        long deadline = System.currentTimeMillis() + SHUTDOWN_MILLIS;
+        while (inFlight.get() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        stopped = true;
+        for (Partition partition : partitions) {
+            partition.writer.join();
+        }
+        persister.join();
+        loader.shutdownNow();
+    }
+
+    public CompletableFuture<Transaction> transfer(UUID fromId, UUID toId, BigDecimal amount) {
+        CompletableFuture<Transaction> result = new CompletableFuture<>();
+        Consumer<Transaction> completion = TransactionCompletion.current(); // Committed with the journal entry
+        Partition source = partitionOf(fromId);
+        Partition target = partitionOf(toId);
+        admit(target, result, t -> {
+            if (t.balance(toId) == null) {
+                throw new ResourceNotFoundException("Receiver account not found with ID");
+            }
+            t.send(source, result, s -> {
+                s.debit(fromId, amount, "Sender account not found", "Insufficient balance! Transaction failed.");
+                journal.add(new JournalEntry(TransactionType.TRANSFER, fromId, toId, amount, LocalDateTime.now(),
+                        completion, result));
+            });
+        });
+        return result;
+    }
+
+    public CompletableFuture<Transaction> deposit(UUID accountId, BigDecimal amount) {
+        CompletableFuture<Transaction> result = new CompletableFuture<>();
+        Consumer<Transaction> completion = TransactionCompletion.current(); // Committed with the journal entry
+        admit(partitionOf(accountId), result, p -> {
+            if (p.balance(accountId) == null) {
+                throw new ResourceNotFoundException("Account not found");
+            }
+            journal.add(new JournalEntry(TransactionType.DEPOSIT, accountId, accountId, amount, LocalDateTime.now(),
+                    completion, result));
+        });
+        return result;
+    }
+
+    public CompletableFuture<Transaction> withdraw(UUID accountId, BigDecimal amount) {
+        CompletableFuture<Transaction> result = new CompletableFuture<>();
+        Consumer<Transaction> completion = TransactionCompletion.current(); // Committed with the journal entry
+        admit(partitionOf(accountId), result, p -> {
+            p.debit(accountId, amount, "Account not found", "Insufficient balance!");
+            journal.add(new JournalEntry(TransactionType.WITHDRAWAL, accountId, accountId, amount, LocalDateTime.now(),
+                    completion, result));
+        });
+        return result;
+    }
+
+    // Forget a deleted account (call after the delete committed)
+    public void evict(UUID accountId) {
+        partitionOf(accountId).commands.add(p -> p.balances.remove(accountId));
+    }
+
+    private Partition partitionOf(UUID accountId) {
+        return partitions[Math.floorMod(accountId.hashCode(), partitions.length)];
+    }
+
+    // Entry point for new work: bounded, so an overloaded engine answers 503 instead of queueing forever.
+    // Hops between partitions (Partition.send) are never rejected, an accepted operation always completes.
+    private void admit(Partition partition, CompletableFuture<Transaction> result, Consumer<Partition> command) {
+        if (!running) {
+            result.completeExceptionally(new LedgerUnavailableException("Ledger engine is not running"));
+        } else if (partition.commands.size() >= queueCapacity) {
+            result.completeExceptionally(new LedgerUnavailableException("Ledger engine is overloaded, please retry"));
+        } else {
+            inFlight.incrementAndGet();
+            result.whenComplete((transaction, error) -> inFlight.decrementAndGet());
+            partition.enqueue(result, command);
+        }
+    }
+
+    private void persistLoop() {
+        List<JournalEntry> batch = new ArrayList<>(batchSize);
+        while (!stopped || !journal.isEmpty()) {
+            JournalEntry first;
+            try {
+                first = journal.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (first == null) {
+                continue;
+            }
+            // Everything that queued up while the previous batch was committing goes into this one
+            batch.add(first);
+            journal.drainTo(batch, batchSize - 1);
+
+            persist(batch);
+            batch.clear();
+        }
+    }
+
+    // Entries of deleted (or, should memory ever disagree, overdrawn) accounts and entries whose
+    // completion refuses to commit fail on their own, other failures are retried with exponential backoff; when the attempts are used up (or the engine
+    // stops) the remaining entries fail
+    private void persist(List<JournalEntry> batch) {
+        List<JournalEntry> pending = batch;
+        long backoffMillis = writeBackoffMillis;
+        for (int attempt = 1; !pending.isEmpty(); ) {
+            try {
+                List<Transaction> records = write(pending);
+                // Credits become spendable now; queued before the callers are answered, so their next
+                // operation sees them
+                pending.forEach(this::applyCredit);
+                for (int i = 0; i < pending.size(); i++) {
+                    pending.get(i).result().complete(records.get(i));
+                }
+                return;
+            } catch (UnwritableAccountsException e) {
+                if (!e.overdrawn.isEmpty()) {
+                    log.error("Ledger engine: batch would overdraw accounts {} in the database, their operations fail",
+                            e.overdrawn);
+                }
+                List<JournalEntry> rest = new ArrayList<>(pending.size());
+                for (JournalEntry entry : pending) {
+                    if (e.missing.contains(entry.fromId()) || e.missing.contains(entry.toId())) {
+                        reject(entry, new ResourceNotFoundException("Account not found"));
+                    } else if (e.overdrawn.contains(entry.fromId()) || e.overdrawn.contains(entry.toId())) {
+                        reject(entry, new LedgerUnavailableException("The ledger could not save the operation, please retry"));
+                    } else {
+                        rest.add(entry);
+                    }
+                }
+                e.missing.forEach(this::evict);
+                pending = rest;
+            } catch (RefusedCompletionsException e) {
+                List<JournalEntry> rest = new ArrayList<>(pending.size());
+                for (JournalEntry entry : pending) {
+                    if (e.refused.containsKey(entry)) {
+                        reject(entry, e.refused.get(entry));
+                    } else {
+                        rest.add(entry);
+                    }
+                }
+                pending = rest;
+            } catch (RuntimeException e) {
+                if (attempt >= writeAttempts || stopped) {
+                    log.error("Ledger engine: journal batch of {} entries could not be written, its operations are undone",
+                            pending.size(), e);
+                    pending.forEach(entry -> reject(entry,
+                            new LedgerUnavailableException("The ledger could not save the operation, please retry")));
+                    return;
+                }
+                log.warn("Ledger engine: writing a journal batch failed (attempt {} of {}), retrying in {} ms",
+                        attempt, writeAttempts, backoffMillis, e);
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    pending.forEach(entry -> reject(entry,
+                            new LedgerUnavailableException("Ledger engine stopped, the operation was not saved")));
+                    return;
+                }
+                backoffMillis = Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
+                attempt++;
+            }
+        }
+    }
+
+    private void applyCredit(JournalEntry entry) {
+        if (entry.type() != TransactionType.WITHDRAWAL) {
+            partitionOf(entry.toId()).commands.add(p -> p.credit(entry.toId(), entry.amount()));
+        }
+    }
+
+    // Gives the entry's debit back, then fails it (its credit was never applied). The refund queues
+    // behind the operation's own commands (same partition, FIFO) and before any retry by the caller.
+    private void reject(JournalEntry entry, RuntimeException error) {
+        if (entry.type() != TransactionType.DEPOSIT) {
+            partitionOf(entry.fromId()).commands.add(p -> p.credit(entry.fromId(), entry.amount()));
+        }
+        entry.result().completeExceptionally(error);
+    }
+
+    // One DB transaction: net balance change per account (in row-lock order), all transaction and posting
+    // rows and the requests' TransactionCompletions. Throws UnwritableAccountsException (the transaction
+    // rolls back) if accounts of the batch no longer exist or would be overdrawn, RefusedCompletionsException
+    // if completions refuse their entry (IdempotencyConflictException).
+    private List<Transaction> write(List<JournalEntry> batch) {
+        return transactionTemplate.execute(status -> {
+            Map<UUID, BigDecimal> deltas = new TreeMap<>(TransactionServiceImpl.LOCK_ORDER);
+            Set<UUID> accountIds = new HashSet<>();
+            for (JournalEntry entry : batch) {
+                if (entry.type() != TransactionType.DEPOSIT) {
+                    deltas.merge(entry.fromId(), entry.amount().negate(), BigDecimal::add);
+                }
+                if (entry.type() != TransactionType.WITHDRAWAL) {
+                    deltas.merge(entry.toId(), entry.amount(), BigDecimal::add);
+                }
+                accountIds.add(entry.fromId());
+                accountIds.add(entry.toId());
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            Set<UUID> notUpdated = new HashSet<>();
+            deltas.forEach((accountId, delta) -> {
+                if (delta.signum() != 0 && accountRepository.adjustBalance(accountId, delta, now) == 0) {
+                    notUpdated.add(accountId);
+                }
+            });
+
+            // Loaded once per batch so the returned transactions carry their account numbers
+            Map<UUID, Account> accounts = accountRepository.findAllById(accountIds).stream()
+                    .collect(Collectors.toMap(Account::getId, Function.identity()));
+            Set<UUID> missing = accountIds.stream().filter(id -> !accounts.containsKey(id)).collect(Collectors.toSet());
+            Set<UUID> overdrawn = notUpdated.stream().filter(accounts::containsKey).collect(Collectors.toSet());
+            if (!missing.isEmpty() || !overdrawn.isEmpty()) {
+                throw new UnwritableAccountsException(missing, overdrawn);
+            }
+            List<Transaction> records = new ArrayList<>(batch.size());
+            for (JournalEntry entry : batch) {
+                records.add(Transaction.builder()
+                        .amount(entry.amount())
+                        .from(accounts.get(entry.fromId()))
+                        .to(accounts.get(entry.toId()))
+                        .transactionDate(entry.transactionDate())
+                        .type(entry.type())
+                        .status(TransactionStatus.SUCCESS)
+                        .build());
+            }
+            transactionRepository.saveAll(records);
+            accountPostingRepository.saveAll(records.stream().flatMap(t -> AccountPosting.of(t).stream()).toList());
+            Map<JournalEntry, RuntimeException> refused = new IdentityHashMap<>();
+            for (int i = 0; i < batch.size(); i++) {
+                if (batch.get(i).completion() != null) {
+                    try {
+                        batch.get(i).completion().accept(records.get(i));
+                    } catch (IdempotencyConflictException e) {
+                        refused.put(batch.get(i), e); // Its key was taken over, it must not commit
+                    }
+                }
+            }
+            if (!refused.isEmpty()) {
+                throw new RefusedCompletionsException(refused);
+            }
+            return records;
+        });
+    }
+
+    private final class Partition implements Runnable {
+
+        private final BlockingQueue<Consumer<Partition>> commands = new LinkedBlockingQueue<>();
+        private final Map<UUID, BigDecimal> balances = new HashMap<>(); // Only touched by the writer thread
+        private final Map<UUID, List<Waiting>> loading = new HashMap<>(); // Commands waiting for a load, in order
+        private final Set<UUID> absent = new HashSet<>(); // Not in the database, while the waiting commands run
+        private final Thread writer;
+
+        Partition(int index) {
+            this.writer = new Thread(this, "ledger-partition-" + index);
+        }
+
+        @Override
+        public void run() {
+            while (!stopped) {
+                try {
+                    Consumer<Partition> command = commands.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (command != null) {
+                        command.accept(this);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        // Hands the command to the writer thread
+        void enqueue(CompletableFuture<Transaction> result, Consumer<Partition> command) {
+            commands.add(partition -> execute(result, command));
+        }
+
+        // A failing command completes its operation exceptionally; nothing after the throw is applied.
+        // A command that needs an account this partition has not loaded yet waits for the load, behind
+        // earlier commands of the same account, and runs again once it is there.
+        private void execute(CompletableFuture<Transaction> result, Consumer<Partition> command) {
+            try {
+                command.accept(this);
+            } catch (NotLoadedException e) {
+                loading.computeIfAbsent(e.accountId, this::load).add(new Waiting(result, command));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        // The database read runs on a loader thread; the writer keeps serving other accounts meanwhile
+        private List<Waiting> load(UUID accountId) {
+            loader.execute(() -> {
+                BigDecimal loaded;
+                try {
+                    loaded = accountRepository.findById(accountId).map(Account::getAvailableBalance).orElse(null);
+                } catch (RuntimeException e) {
+                    commands.add(partition -> loading.remove(accountId)
+                            .forEach(waiting -> waiting.result().completeExceptionally(e)));
+                    return;
+                }
+                commands.add(partition -> {
+                    if (loaded != null) {
+                        balances.put(accountId, loaded);
+                    } else {
+                        absent.add(accountId);
+                    }
+                    try {
+                        loading.remove(accountId).forEach(waiting -> execute(waiting.result(), waiting.command()));
+                    } finally {
+                        absent.remove(accountId);
+                    }
+                });
+            });
+            return new ArrayList<>();
+        }
+
+        void send(Partition next, CompletableFuture<Transaction> result, Consumer<Partition> command) {
+            next.enqueue(result, command);
+        }
+
+        // null: the account does not exist. Throws NotLoadedException (handled by execute) if it
+        // has to be read from the database first, so commands call it before changing anything.
+        BigDecimal balance(UUID accountId) {
+            BigDecimal balance = balances.get(accountId);
+            if (balance == null && !absent.contains(accountId)) {
+                throw new NotLoadedException(accountId);
+            }
+            return balance;
+        }
+
+        void debit(UUID accountId, BigDecimal amount, String notFoundMessage, String insufficientMessage) {
+            BigDecimal balance = balance(accountId);
+            if (balance == null) {
+                throw new ResourceNotFoundException(notFoundMessage);
+            }
+            if (balance.compareTo(amount) < 0) {
+                throw new InsufficientBalanceException(insufficientMessage);
+            }
+            balances.put(accountId, balance.subtract(amount));
+        }
+
+        // Committed credits and refunded debits. The account was loaded by the existence check, it is
+        // only missing again if it was deleted (then the next use reads it from the database).
+        void credit(UUID accountId, BigDecimal amount) {
+            balances.computeIfPresent(accountId, (id, balance) -> balance.add(amount));
+        }
+    }
+
+    private static final class NotLoadedException extends RuntimeException {
+
+        private final UUID accountId;
+
+        NotLoadedException(UUID accountId) {
+            super(null, null, false, false); // Control flow only: no stack trace
+            this.accountId = accountId;
+        }
+    }
+
+    private static final class UnwritableAccountsException extends RuntimeException {
+
+        private final Set<UUID> missing;
+        private final Set<UUID> overdrawn;
+
+        UnwritableAccountsException(Set<UUID> missing, Set<UUID> overdrawn) {
+            super("Accounts missing: " + missing + ", overdrawn: " + overdrawn, null, false, false);
+            this.missing = missing;
+            this.overdrawn = overdrawn;
+        }
+    }
+
+    private static final class RefusedCompletionsException extends RuntimeException {
+
+        private final Map<JournalEntry, RuntimeException> refused;
+
+        RefusedCompletionsException(Map<JournalEntry, RuntimeException> refused) {
+            super(refused.size() + " completions refused their entry", null, false, false);
+            this.refused = refused;
+        }
+    }
+
+    private record Waiting(CompletableFuture<Transaction> result, Consumer<Partition> command) {
+    }
+
+    private record JournalEntry(TransactionType type, UUID fromId, UUID toId, BigDecimal amount,
+            LocalDateTime transactionDate, Consumer<Transaction> completion, CompletableFuture<Transaction> result) {
+    }
+}
@@ -0,0 +1,151 @@
+package com.oredata.banking_api.service.impl;
+
+import com.oredata.banking_api.dto.requestDto.TransactionCursor;
+import com.oredata.banking_api.dto.requestDto.TransactionDto;
+import com.oredata.banking_api.dto.responseDto.TransactionResponseDto;
+import com.oredata.banking_api.exception.InsufficientBalanceException;
+import com.oredata.banking_api.exception.LedgerOutcomeUnknownException;
+import com.oredata.banking_api.exception.ResourceNotFoundException;
+import com.oredata.banking_api.model.BatchTransferResult;
+import com.oredata.banking_api.model.entity.Transaction;
+import com.oredata.banking_api.service.TransactionService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+// Engine mode (banking.ledger.engine.enabled=true): replaces RetryingTransactionService as the @Primary
+// TransactionService. Money movements are sequenced by LedgerEngine (no row locks, nothing to retry);
+// history reads and exports still go to the database through TransactionServiceImpl.
+@Service
+@Primary
+@ConditionalOnProperty(name = "banking.ledger.engine.enabled", havingValue = "true")
+public class LedgerTransactionService implements TransactionService {
+
+    private final LedgerEngine engine;
+    private final TransactionServiceImpl delegate;
+    private final AccountDirectory accountDirectory;
+    private final BankingMetrics metrics;
+    private final long commitTimeoutMillis;
+
+    public LedgerTransactionService(LedgerEngine engine,
+            TransactionServiceImpl delegate,
+            AccountDirectory accountDirectory,
+            BankingMetrics metrics,
+            @Value("${banking.ledger.engine.commit-timeout:5s}") Duration commitTimeout) {
+        this.engine = engine;
+        this.delegate = delegate;
+        this.accountDirectory = accountDirectory;
+        this.metrics = metrics;
+        this.commitTimeoutMillis = commitTimeout.toMillis();
+    }
+
+    @Override
+    public Transaction transferFunds(TransactionDto transactionDto) {
+        return metrics.time("transfer", () -> await(submitTransfer(transactionDto)));
+    }
+
+    // The engine has no cross-partition rollback, so it cannot offer the all-or-nothing default:
+    // only continueOnError=true batches are accepted, the items are independent transfers.
+    @Override
+    public List<BatchTransferResult> transferBatch(List<TransactionDto> transfers, boolean continueOnError) {
+        if (!continueOnError) {
+            throw new IllegalArgumentException(
+                    "All-or-nothing batches are not available in ledger engine mode, send continueOnError=true");
+        }
+        // Let the engine sequence all of them, then collect
+        List<CompletableFuture<Transaction>> pending = new ArrayList<>(transfers.size());
+        for (TransactionDto dto : transfers) {
+            pending.add(submitTransferOrFail(dto));
+        }
+        List<BatchTransferResult> results = new ArrayList<>(transfers.size());
+        for (int i = 0; i < pending.size(); i++) {
+            results.add(collect(i, pending.get(i)));
+        }
+        return results;
+    }
+
+    @Override
+    public Transaction deposit(UUID accountId, BigDecimal amount) {
+        return metrics.time("deposit", () -> await(engine.deposit(accountId, amount)));
+    }
+
+    @Override
+    public Transaction withdraw(UUID accountId, BigDecimal amount) {
+        return metrics.time("withdraw", () -> await(engine.withdraw(accountId, amount)));
+    }
+
+    // Read-only methods: served from the database
+
+    @Override
+    public List<TransactionResponseDto> getAccountHistory(UUID accountId) {
+        return metrics.time("history", () -> delegate.getAccountHistory(accountId));
+    }
+
+    @Override
+    public Slice<TransactionResponseDto> getAccountHistoryPage(UUID accountId, TransactionCursor cursor, int size) {
+        return delegate.getAccountHistoryPage(accountId, cursor, size);
+    }
+
+    @Override
+    public void exportAccountHistory(UUID accountId, Consumer<TransactionResponseDto> consumer) {
+        delegate.exportAccountHistory(accountId, consumer);
+    }
+
+    private CompletableFuture<Transaction> submitTransfer(TransactionDto dto) {
+        UUID toId;
+        if (dto.getTargetAccountId() != null) {
+            toId = dto.getTargetAccountId();
+        } else if (dto.getTargetAccountNumber() != null) {
+            toId = accountDirectory.resolve(dto.getTargetAccountNumber());
+        } else {
+            throw new IllegalArgumentException("Target Account ID or Number must be provided");
+        }
+        return engine.transfer(dto.getSourceAccountId(), toId, dto.getAmount());
+    }
+
+    private CompletableFuture<Transaction> submitTransferOrFail(TransactionDto dto) {
+        try {
+            return submitTransfer(dto);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private BatchTransferResult collect(int index, CompletableFuture<Transaction> pending) {
+        try {
+            return BatchTransferResult.success(index, await(pending));
+        } catch (ResourceNotFoundException | InsufficientBalanceException | IllegalArgumentException e) {
+            return BatchTransferResult.failure(index, e.getMessage());
+        }
+    }
+
+    // Blocks until the operation's journal batch is committed
+    private Transaction await(CompletableFuture<Transaction> pending) {
+        try {
+            return pending.get(commitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new LedgerOutcomeUnknownException("The ledger did not confirm the operation in time; check the account history before retrying");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LedgerOutcomeUnknownException("Interrupted while waiting for the ledger");
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.oredata.banking_api.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// MONTHLY PARTITIONS of transactions and account_postings (db/migration V2)
+// A row can only be inserted once the partition of its month exists, so they are created ahead:
+// after startup and then daily, for the current month and banking.partitions.months-ahead more.
+// The margin lets a failing run be retried for months before inserts are affected.
+// Idempotent and serialized in the database (create_monthly_partitions), safe on every node.
+// Off when Flyway is (the benchmarks' H2 schema is not partitioned).
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.flyway.enabled", havingValue = "true", matchIfMissing = true)
+public class PartitionMaintenance {
+
+    private static final List<String> PARTITIONED_TABLES = List.of("transactions", "account_postings");
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "partition-maintenance");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public PartitionMaintenance(EntityManager entityManager,
+            PlatformTransactionManager transactionManager,
+            @Value("${banking.partitions.months-ahead:3}") int monthsAhead) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.monthsAhead = monthsAhead;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::run, 0, 1, TimeUnit.DAYS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    // Synchronous run (scheduled on its own thread)
+    public void run() {
+        try {
+            for (String table : PARTITIONED_TABLES) {
+                Number created = transactionTemplate.execute(status -> (Number) entityManager.createNativeQuery(
+                                "SELECT create_monthly_partitions(CAST(:parent AS regclass), localtimestamp, "
+                                        + "localtimestamp + make_interval(months => :monthsAhead))")
+                        .setParameter("parent", table)
+                        .setParameter("monthsAhead", monthsAhead)
+                        .getSingleResult());
+                if (created != null && created.intValue() > 0) {
+                    log.info("Created {} monthly partitions of {}", created, table);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Partition maintenance failed; retried in a day", e);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.oredata.banking_api.service.impl;
+
+import com.oredata.banking_api.exception.InvalidRefreshTokenException;
+import com.oredata.banking_api.model.entity.RefreshToken;
+import com.oredata.banking_api.model.entity.User;
+import com.oredata.banking_api.repository.RefreshTokenRepository;
+import com.oredata.banking_api.service.RefreshTokenService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// REFRESH TOKENS (POST /api/users/refresh, /api/users/logout)
+// A refresh token is 256 random bits, so a plain SHA-256 is enough to store it (no slow hash):
+// renewing a session costs a primary key lookup, two small writes and the JWT signature, instead
+// of a BCrypt check of the password.
+// Rotation: each token is good for one refresh. A used token presented again means it was copied;
+// the whole family (everything rotated from the same login) is revoked and both holders must log in.
+@Slf4j
+@Service
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+    private static final long PURGE_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private final RefreshTokenRepository repository;
+    private final Duration ttl;
+    private final SecureRandom random = new SecureRandom();
+    private final AtomicLong nextPurge = new AtomicLong();
+
+    public RefreshTokenServiceImpl(RefreshTokenRepository repository,
+            @Value("${security.refresh-token.ttl:7d}") Duration ttl) {
+        this.repository = repository;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public String issue(User user) {
+        return save(UUID.randomUUID(), user.getId(), user.getUsername());
+    }
+
+    @Override
+    public Rotation rotate(String refreshToken) {
+        LocalDateTime now = LocalDateTime.now();
+        purgeExpired(now);
+        RefreshToken current = repository.findById(sha256(refreshToken))
+                .filter(token -> token.getExpiresAt().isAfter(now))
+                .orElseThrow(RefreshTokenServiceImpl::invalid);
+
+        if (repository.markUsed(current.getTokenHash(), now) == 0) {
+            // Used before (or by a concurrent request): replayed
+            int revoked = repository.deleteFamily(current.getFamily());
+            log.warn("Refresh token reused for user {}, {} tokens revoked", current.getUsername(), revoked);
+            throw invalid();
+        }
+        String next = save(current.getFamily(), current.getUserId(), current.getUsername());
+        return new Rotation(next, current.getUserId(), current.getUsername());
+    }
+
+    @Override
+    public void revoke(String refreshToken) {
+        repository.findById(sha256(refreshToken))
+                .ifPresent(token -> repository.deleteFamily(token.getFamily()));
+    }
+
+    private String save(UUID family, UUID userId, String username) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        repository.save(RefreshToken.builder()
+                .tokenHash(sha256(token))
+                .family(family)
+                .userId(userId)
+                .username(username)
+                .expiresAt(LocalDateTime.now().plus(ttl))
+                .build());
+        return token;
+    }
+
+    // At most once per interval and node, piggybacked on a refresh
+    private void purgeExpired(LocalDateTime now) {
+        long millis = System.currentTimeMillis();
+        long due = nextPurge.get();
+        if (millis >= due && nextPurge.compareAndSet(due, millis + PURGE_INTERVAL_MILLIS)) {
+            int purged = repository.deleteExpired(now);
+            log.debug("Purged {} expired refresh tokens", purged);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static InvalidRefreshTokenException invalid() {
+        return new InvalidRefreshTokenException("Refresh token is invalid or expired");
+    }
+}
@@ -0,0 +1,151 @@
+package com.oredata.banking_api.service.impl;
+
+import com.oredata.banking_api.dto.requestDto.TransactionCursor;
+import com.oredata.banking_api.dto.requestDto.TransactionDto;
+import com.oredata.banking_api.dto.responseDto.TransactionResponseDto;
+import com.oredata.banking_api.model.BatchTransferResult;
+import com.oredata.banking_api.model.entity.Transaction;
+import com.oredata.banking_api.service.TransactionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.Slice;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Retry layer in front of TransactionServiceImpl (controllers get this bean, it is @Primary).
+// Runs OUTSIDE the DB transaction, so every attempt is a fresh transaction that re-reads the accounts.
+// Retries optimistic-lock conflicts and lock failures (deadlock / lock timeout) with jittered
+// exponential backoff; what is left after max-attempts or the account budget becomes a 409.
+// Not used in ledger engine mode (see LedgerTransactionService).
+@Service
+@Primary
+@ConditionalOnProperty(name = "banking.ledger.engine.enabled", havingValue = "false", matchIfMissing = true)
+public class RetryingTransactionService implements TransactionService {
+
+    private final TransactionServiceImpl delegate;
+    private final AccountContentionTracker contentionTracker;
+    private final BankingMetrics metrics;
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    public RetryingTransactionService(TransactionServiceImpl delegate,
+            AccountContentionTracker contentionTracker,
+            BankingMetrics metrics,
+            MeterRegistry meterRegistry,
+            @Value("${banking.retry.max-attempts:4}") int maxAttempts,
+            @Value("${banking.retry.initial-backoff:10ms}") Duration initialBackoff,
+            @Value("${banking.retry.max-backoff:200ms}") Duration maxBackoff) {
+        this.delegate = delegate;
+        this.contentionTracker = contentionTracker;
+        this.metrics = metrics;
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoff.toMillis();
+        this.maxBackoffMillis = maxBackoff.toMillis();
+    }
+
+    @Override
+    public Transaction transferFunds(TransactionDto transactionDto) {
+        List<UUID> accounts = transactionDto.getTargetAccountId() == null
+                ? List.of(transactionDto.getSourceAccountId())
+                : List.of(transactionDto.getSourceAccountId(), transactionDto.getTargetAccountId());
+        return metrics.time("transfer",
+                () -> withRetry("transfer", accounts, () -> delegate.transferFunds(transactionDto)));
+    }
+
+    @Override
+    public List<BatchTransferResult> transferBatch(List<TransactionDto> transfers, boolean continueOnError) {
+        // Accounts are already locked with FOR UPDATE; conflicts here are deadlocks / lock timeouts
+        return withRetry("batch", List.of(), () -> delegate.transferBatch(transfers, continueOnError));
+    }
+
+    @Override
+    public Transaction withdraw(UUID accountId, BigDecimal amount) {
+        return metrics.time("withdraw",
+                () -> withRetry("withdraw", List.of(accountId), () -> delegate.withdraw(accountId, amount)));
+    }
+
+    @Override
+    public Transaction deposit(UUID accountId, BigDecimal amount) {
+        return metrics.time("deposit",
+                () -> withRetry("deposit", List.of(accountId), () -> delegate.deposit(accountId, amount)));
+    }
+
+    // Read-only methods: nothing to retry
+
+    @Override
+    public List<TransactionResponseDto> getAccountHistory(UUID accountId) {
+        return metrics.time("history", () -> delegate.getAccountHistory(accountId));
+    }
+
+    @Override
+    public Slice<TransactionResponseDto> getAccountHistoryPage(UUID accountId, TransactionCursor cursor, int size) {
+        return delegate.getAccountHistoryPage(accountId, cursor, size);
+    }
+
+    @Override
+    public void exportAccountHistory(UUID accountId, Consumer<TransactionResponseDto> consumer) {
+        delegate.exportAccountHistory(accountId, consumer);
+    }
+
+    // involvedAccounts: blamed for the conflict when the exception does not name the stale entity
+    private <T> T withRetry(String operation, List<UUID> involvedAccounts, Supplier<T> action) {
+        for (int attempt = 1;; attempt++) {
+            try {
+                return action.get();
+            } catch (ConcurrencyFailureException e) {
+                List<UUID> accountIds = conflictingAccounts(e, involvedAccounts);
+                contentionTracker.recordConflict(operation);
+
+                if (attempt >= maxAttempts) {
+                    giveUp(operation, "attempts");
+                    throw e;
+                }
+                if (!contentionTracker.tryAcquireRetry(operation, accountIds)) {
+                    giveUp(operation, "budget");
+                    throw e;
+                }
+                backoff(attempt, e);
+            }
+        }
+    }
+
+    // Full jitter: sleep a random time in [0, min(max, initial * 2^(attempt-1))]
+    private void backoff(int attempt, ConcurrencyFailureException cause) {
+        long cap = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(cap + 1));
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+
+    private void giveUp(String operation, String reason) {
+        meterRegistry.counter("banking.account.lock.exhausted", "operation", operation, "reason", reason)
+                .increment();
+    }
+
+    // Hibernate names the stale entity for single-row @Version conflicts, but not for
+    // JDBC-batched updates or lock failures; then every account of the operation is blamed
+    private List<UUID> conflictingAccounts(ConcurrencyFailureException e, List<UUID> involvedAccounts) {
+        if (e instanceof ObjectOptimisticLockingFailureException optimistic
+                && optimistic.getIdentifier() instanceof UUID accountId) {
+            return List.of(accountId);
+        }
+        return involvedAccounts;
+    }
+}
@@ -0,0 +1,144 @@
+package com.oredata.banking_api.service.impl;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.oredata.banking_api.config.CallerLoadedCache;
+import com.oredata.banking_api.model.entity.AccountBalanceBucket;
+import com.oredata.banking_api.repository.AccountBalanceBucketRepository;
+import com.oredata.banking_api.repository.AccountRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+// HOT ACCOUNT MODE
+// A few accounts (e.g. merchant collection accounts) receive a large share of all credits. With a
+// single balance row every write queues on that row. A hot account spreads its balance over N bucket
+// rows: balance = accounts.balance + SUM(bucket balances).
+// - Credits go to a random bucket, so concurrent credits rarely touch the same row.
+// - Debits try the main row, then single buckets, and as a last resort drain all buckets into the
+//   main row (under lock) and debit that.
+// Correctness does not depend on the locally cached stripe count: a credit to a missing bucket
+// falls back to the main row, and a debit always ends with a full drain.
+// Lock order per account: all buckets (drain), then the main row. Batch transfers drain in the same
+// order (TransactionServiceImpl.lockForBatch).
+@Component
+@Transactional(propagation = Propagation.MANDATORY) // Always part of the caller's transaction
+public class StripedBalances {
+
+    private final AccountRepository accountRepository;
+    private final AccountBalanceBucketRepository bucketRepository;
+
+    // accountId -> stripes (0 = not hot). Other nodes see promotions after at most the TTL.
+    private final AsyncCache<UUID, Integer> stripesByAccount;
+
+    public StripedBalances(AccountRepository accountRepository,
+            AccountBalanceBucketRepository bucketRepository,
+            @Value("${banking.hot-accounts.cache-ttl:30s}") Duration cacheTtl) {
+        this.accountRepository = accountRepository;
+        this.bucketRepository = bucketRepository;
+        this.stripesByAccount = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(cacheTtl)
+                .buildAsync();
+    }
+
+    // true if the account exists (and was credited)
+    public boolean credit(UUID accountId, BigDecimal amount) {
+        int stripes = stripes(accountId);
+        if (stripes > 0) {
+            int bucket = ThreadLocalRandom.current().nextInt(stripes);
+            if (bucketRepository.credit(accountId, bucket, amount) == 1) {
+                return true;
+            }
+            // Bucket gone (account demoted meanwhile): use the main row
+        }
+        return accountRepository.credit(accountId, amount, LocalDateTime.now()) == 1;
+    }
+
+    // true if debited; false if the account is missing or the total balance is too low
+    public boolean debit(UUID accountId, BigDecimal amount) {
+        if (accountRepository.debit(accountId, amount, LocalDateTime.now()) == 1) {
+            return true;
+        }
+        int stripes = stripes(accountId);
+        if (stripes == 0) {
+            return false;
+        }
+
+        // Any single bucket large enough? Start at a random one to spread debits as well.
+        int start = ThreadLocalRandom.current().nextInt(stripes);
+        for (int i = 0; i < stripes; i++) {
+            if (bucketRepository.debit(accountId, (start + i) % stripes, amount) == 1) {
+                return true;
+            }
+        }
+
+        // Slow path: consolidate everything into the main row, then try once more
+        BigDecimal drained = drain(accountId);
+        if (drained.signum() > 0) {
+            accountRepository.credit(accountId, drained, LocalDateTime.now());
+        }
+        return accountRepository.debit(accountId, amount, LocalDateTime.now()) == 1;
+    }
+
+    // Locks all buckets of the account, sets them to 0 and returns what they held.
+    // The caller must add the result to the main balance in the same transaction.
+    public BigDecimal drain(UUID accountId) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (AccountBalanceBucket bucket : bucketRepository.findAllByAccountIdForUpdate(accountId)) {
+            total = total.add(bucket.getBalance());
+            bucket.setBalance(BigDecimal.ZERO);
+        }
+        return total;
+    }
+
+    public boolean isStriped(UUID accountId) {
+        return stripes(accountId) > 0;
+    }
+
+    // Turns hot mode on with the given number of (empty) buckets
+    public void promote(UUID accountId, int stripes) {
+        if (stripes(accountId) > 0) {
+            demote(accountId); // Re-striping: start from a single balance again
+        }
+        List<AccountBalanceBucket> buckets = new ArrayList<>(stripes);
+        for (int i = 0; i < stripes; i++) {
+            buckets.add(AccountBalanceBucket.builder()
+                    .account(accountRepository.getReferenceById(accountId))
+                    .bucket(i)
+                    .balance(BigDecimal.ZERO)
+                    .build());
+        }
+        bucketRepository.saveAll(buckets);
+        accountRepository.updateStripes(accountId, stripes);
+        stripesByAccount.synchronous().put(accountId, stripes);
+    }
+
+    // Turns hot mode off: buckets are folded back into the main balance and removed
+    public void demote(UUID accountId) {
+        BigDecimal drained = drain(accountId);
+        if (drained.signum() > 0) {
+            accountRepository.credit(accountId, drained, LocalDateTime.now());
+        }
+        bucketRepository.flush(); // Write the drained buckets before the bulk DELETE
+        bucketRepository.deleteAllByAccountId(accountId);
+        accountRepository.updateStripes(accountId, 0);
+        stripesByAccount.synchronous().put(accountId, 0);
+    }
+
+    // One load per account at a time, on the calling thread (see CallerLoadedCache); a promote or
+    // demote during the load replaces it, so the old count is not cached
+    private int stripes(UUID accountId) {
+        return CallerLoadedCache.get(stripesByAccount, accountId,
+                id -> accountRepository.findStripesById(id).orElse(0));
+    }
+}
@@ -0,0 +1,39 @@
+package com.oredata.banking_api.service.impl;
+
+import com.oredata.banking_api.model.entity.Transaction;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Work that must commit together with the money movement of the current request: the response
+// stored for its Idempotency-Key (IdempotencyServiceImpl). Bound to the request thread around the
+// service call; TransactionServiceImpl runs it in the DB transaction that writes the Transaction row,
+// LedgerEngine in the journal batch that writes it. If that transaction rolls back, so does the work.
+final class TransactionCompletion {
+
+    private static final ThreadLocal<Consumer<Transaction>> CURRENT = new ThreadLocal<>();
+
+    private TransactionCompletion() {
+    }
+
+    static <T> T bind(Consumer<Transaction> completion, Supplier<T> call) {
+        CURRENT.set(completion);
+        try {
+            return call.get();
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    // null: the request has nothing to complete
+    static Consumer<Transaction> current() {
+        return CURRENT.get();
+    }
+
+    static void run(Transaction transaction) {
+        Consumer<Transaction> completion = CURRENT.get();
+        if (completion != null) {
+            completion.accept(transaction);
+        }
+    }
+}
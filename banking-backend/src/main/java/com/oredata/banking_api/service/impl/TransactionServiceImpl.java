@@ -1,14 +1,23 @@
 package com.oredata.banking_api.service.impl;
 
+import com.oredata.banking_api.dto.requestDto.TransactionCursor;
 import com.oredata.banking_api.dto.requestDto.TransactionDto;
+import com.oredata.banking_api.dto.responseDto.TransactionResponseDto;
+import com.oredata.banking_api.model.BatchTransferResult;
 import com.oredata.banking_api.model.entity.Account;
+import com.oredata.banking_api.model.entity.AccountPosting;
 import com.oredata.banking_api.model.entity.Transaction;
 import com.oredata.banking_api.model.entity.enums.TransactionStatus;
 import com.oredata.banking_api.model.entity.enums.TransactionType;
+import com.oredata.banking_api.repository.AccountPostingRepository;
 import com.oredata.banking_api.repository.AccountRepository;
 import com.oredata.banking_api.repository.TransactionRepository;
 import com.oredata.banking_api.service.TransactionService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import com.oredata.banking_api.exception.InsufficientBalanceException;
 import com.oredata.banking_api.exception.ResourceNotFoundException;
@@ -16,71 +25,206 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class TransactionServiceImpl implements TransactionService {
 
+    // Row-lock order: unsigned byte order of the UUID, the same order PostgreSQL uses for
+    // "ORDER BY id" in AccountRepository.findAllByIdInForUpdate
+    static final Comparator<UUID> LOCK_ORDER = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
     private final TransactionRepository transactionRepository;
+    private final AccountPostingRepository accountPostingRepository;
     private final AccountRepository accountRepository;
+    private final StripedBalances stripedBalances;
+    private final AccountDirectory accountDirectory;
 
     @Override
     @Transactional
     public Transaction transferFunds(TransactionDto transactionDto) {
-        // 1. Find Accounts
-        Account fromAccount = accountRepository.findById(transactionDto.getSourceAccountId())
-                .orElseThrow(() -> new ResourceNotFoundException("Sender account not found"));
-
-        Account toAccount;
+        UUID fromId = transactionDto.getSourceAccountId();
+        UUID toId;
 
-        // RESOLVE TARGET ACCOUNT
+        // 1. RESOLVE TARGET ACCOUNT (id only, the entity is never loaded)
         if (transactionDto.getTargetAccountId() != null) {
-            toAccount = accountRepository.findById(transactionDto.getTargetAccountId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Receiver account not found with ID"));
+            toId = transactionDto.getTargetAccountId();
         } else if (transactionDto.getTargetAccountNumber() != null) {
-            toAccount = accountRepository.findByNumber(transactionDto.getTargetAccountNumber())
-                    .orElseThrow(() -> new ResourceNotFoundException("Receiver account not found with Number"));
+            toId = accountDirectory.resolve(transactionDto.getTargetAccountNumber());
         } else {
             throw new IllegalArgumentException("Target Account ID or Number must be provided");
         }
 
-        // 2. Is Balance Sufficient?
-        if (fromAccount.getBalance().compareTo(transactionDto.getAmount()) < 0) {
-            throw new InsufficientBalanceException("Insufficient balance! Transaction failed.");
+        // 2. Move the money with two conditional UPDATEs.
+        // Rows are updated in LOCK_ORDER, so opposite transfers (A->B, B->A) cannot deadlock.
+        // Any failure rolls back the whole transaction, including an already applied credit.
+        if (LOCK_ORDER.compare(fromId, toId) <= 0) {
+            debit(fromId, transactionDto.getAmount(), "Sender account not found",
+                    "Insufficient balance! Transaction failed.");
+            credit(toId, transactionDto.getAmount(), "Receiver account not found with ID");
+        } else {
+            credit(toId, transactionDto.getAmount(), "Receiver account not found with ID");
+            debit(fromId, transactionDto.getAmount(), "Sender account not found",
+                    "Insufficient balance! Transaction failed.");
         }
 
-        // 3. Update Balances
-        fromAccount.setBalance(fromAccount.getBalance().subtract(transactionDto.getAmount()));
-        toAccount.setBalance(toAccount.getBalance().add(transactionDto.getAmount()));
-
-        accountRepository.save(fromAccount);
-        accountRepository.save(toAccount);
-
-        // 4. Transaction Record (CHANGE: Used .from and .to)
+        // 3. Transaction Record (references only, no SELECT)
         Transaction transaction = Transaction.builder()
                 .amount(transactionDto.getAmount())
-                .from(fromAccount) // <-- OLD: sourceAccount
-                .to(toAccount) // <-- OLD: targetAccount
+                .from(accountRepository.getReferenceById(fromId))
+                .to(accountRepository.getReferenceById(toId))
                 .transactionDate(LocalDateTime.now())
                 .type(TransactionType.TRANSFER)
                 .status(TransactionStatus.SUCCESS)
                 .build();
 
-        return transactionRepository.save(transaction);
+        return record(transaction);
     }
 
     @Override
     @Transactional
-    public Transaction deposit(UUID accountId, BigDecimal amount) {
-        Account account = accountRepository.findById(accountId)
-                .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
+    public List<BatchTransferResult> transferBatch(List<TransactionDto> transfers, boolean continueOnError) {
+        // 1. Resolve target account numbers to ids (in memory, no entities loaded yet)
+        Set<String> targetNumbers = transfers.stream()
+                .filter(dto -> dto.getTargetAccountId() == null && dto.getTargetAccountNumber() != null)
+                .map(TransactionDto::getTargetAccountNumber)
+                .collect(Collectors.toSet());
+        Map<String, UUID> idsByNumber = targetNumbers.isEmpty()
+                ? Map.of()
+                : accountDirectory.resolveAll(targetNumbers);
+
+        // 2. Lock every involved account once, in ascending id order
+        Set<UUID> accountIds = new HashSet<>();
+        Set<UUID> sourceIds = new HashSet<>();
+        for (TransactionDto dto : transfers) {
+            accountIds.add(dto.getSourceAccountId());
+            sourceIds.add(dto.getSourceAccountId());
+            UUID targetId = resolveTargetId(dto, idsByNumber);
+            if (targetId != null) {
+                accountIds.add(targetId);
+            }
+        }
+        Map<UUID, Account> accounts = lockForBatch(accountIds, sourceIds);
+
+        // 3. Apply transfers in request order on the locked (managed) entities
+        List<BatchTransferResult> results = new ArrayList<>(transfers.size());
+        List<Transaction> records = new ArrayList<>(transfers.size());
+        for (int i = 0; i < transfers.size(); i++) {
+            try {
+                Transaction transaction = applyBatchTransfer(transfers.get(i), accounts, idsByNumber);
+                records.add(transaction);
+                results.add(BatchTransferResult.success(i, transaction));
+            } catch (ResourceNotFoundException | InsufficientBalanceException | IllegalArgumentException e) {
+                if (!continueOnError) {
+                    throw e; // Rolls back the whole batch
+                }
+                results.add(BatchTransferResult.failure(i, e.getMessage()));
+            }
+        }
+
+        // 4. Write all transaction (and posting) rows together; everything is flushed JDBC batched on commit
+        transactionRepository.saveAll(records);
+        accountPostingRepository.saveAll(records.stream().flatMap(t -> AccountPosting.of(t).stream()).toList());
+        return results;
+    }
+
+    // Rows are locked in LOCK_ORDER, one query per run of ids between hot source accounts.
+    // A hot source's buckets are drained just before its row is locked: all buckets, then the row,
+    // the order StripedBalances.debit takes them in, so the batch and single debits cannot deadlock.
+    // The drained amounts are added to the locked accounts' balances.
+    private Map<UUID, Account> lockForBatch(Set<UUID> accountIds, Set<UUID> sourceIds) {
+        Map<UUID, Account> accounts = new HashMap<>();
+        Map<UUID, BigDecimal> drained = new HashMap<>();
+        List<UUID> run = new ArrayList<>();
+        for (UUID id : accountIds.stream().sorted(LOCK_ORDER).toList()) {
+            if (sourceIds.contains(id) && stripedBalances.isStriped(id)) {
+                lockRows(run, accounts);
+                drained.put(id, stripedBalances.drain(id));
+            }
+            run.add(id);
+        }
+        lockRows(run, accounts);
+
+        drained.forEach((id, amount) -> {
+            Account account = accounts.get(id);
+            if (account != null) {
+                account.setBalance(account.getBalance().add(amount));
+            }
+        });
+        return accounts;
+    }
+
+    private void lockRows(List<UUID> ids, Map<UUID, Account> accounts) {
+        if (!ids.isEmpty()) {
+            accounts.putAll(accountRepository.findAllByIdInForUpdate(ids).stream()
+                    .collect(Collectors.toMap(Account::getId, Function.identity())));
+            ids.clear();
+        }
+    }
+
+    // Checks and applies one batch item in memory. Nothing is changed if it throws.
+    private Transaction applyBatchTransfer(TransactionDto dto, Map<UUID, Account> accounts,
+            Map<String, UUID> idsByNumber) {
+        Account fromAccount = accounts.get(dto.getSourceAccountId());
+        if (fromAccount == null) {
+            throw new ResourceNotFoundException("Sender account not found");
+        }
+
+        if (dto.getTargetAccountId() == null && dto.getTargetAccountNumber() == null) {
+            throw new IllegalArgumentException("Target Account ID or Number must be provided");
+        }
+        UUID targetId = resolveTargetId(dto, idsByNumber);
+        Account toAccount = targetId == null ? null : accounts.get(targetId);
+        if (toAccount == null) {
+            throw new ResourceNotFoundException("Receiver account not found");
+        }
+
+        // Hot source accounts: their buckets were already folded into the balance (lockForBatch)
+        if (fromAccount.getBalance().compareTo(dto.getAmount()) < 0) {
+            throw new InsufficientBalanceException("Insufficient balance! Transaction failed.");
+        }
 
-        account.setBalance(account.getBalance().add(amount));
-        accountRepository.save(account);
+        fromAccount.setBalance(fromAccount.getBalance().subtract(dto.getAmount()));
+        toAccount.setBalance(toAccount.getBalance().add(dto.getAmount()));
+
+        return Transaction.builder()
+                .amount(dto.getAmount())
+                .from(fromAccount)
+                .to(toAccount)
+                .transactionDate(LocalDateTime.now())
+                .type(TransactionType.TRANSFER)
+                .status(TransactionStatus.SUCCESS)
+                .build();
+    }
+
+    private UUID resolveTargetId(TransactionDto dto, Map<String, UUID> idsByNumber) {
+        if (dto.getTargetAccountId() != null) {
+            return dto.getTargetAccountId();
+        }
+        return dto.getTargetAccountNumber() == null ? null : idsByNumber.get(dto.getTargetAccountNumber());
+    }
+
+    @Override
+    @Transactional
+    public Transaction deposit(UUID accountId, BigDecimal amount) {
+        credit(accountId, amount, "Account not found");
 
         // CHANGE: Used .from and .to
+        Account account = accountRepository.getReferenceById(accountId);
         Transaction transaction = Transaction.builder()
                 .amount(amount)
                 .from(account) // Source is self for deposit
@@ -90,23 +234,16 @@ public class TransactionServiceImpl implements TransactionService {
                 .status(TransactionStatus.SUCCESS)
                 .build();
 
-        return transactionRepository.save(transaction);
+        return record(transaction);
     }
 
     @Override
     @Transactional
     public Transaction withdraw(UUID accountId, BigDecimal amount) {
-        Account account = accountRepository.findById(accountId)
-                .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
-
-        if (account.getBalance().compareTo(amount) < 0) {
-            throw new InsufficientBalanceException("Insufficient balance!");
-        }
-
-        account.setBalance(account.getBalance().subtract(amount));
-        accountRepository.save(account);
+        debit(accountId, amount, "Account not found", "Insufficient balance!");
 
         // CHANGE: Used .from and .to
+        Account account = accountRepository.getReferenceById(accountId);
         Transaction transaction = Transaction.builder()
                 .amount(amount)
                 .from(account)
@@ -116,12 +253,63 @@ public class TransactionServiceImpl implements TransactionService {
                 .status(TransactionStatus.SUCCESS)
                 .build();
 
-        return transactionRepository.save(transaction);
+        return record(transaction);
+    }
+
+    // Transaction row + its account postings (+ the request's TransactionCompletion), in the caller's DB transaction
+    private Transaction record(Transaction transaction) {
+        Transaction saved = transactionRepository.save(transaction);
+        accountPostingRepository.saveAll(AccountPosting.of(saved));
+        TransactionCompletion.run(saved);
+        return saved;
+    }
+
+    // Atomic "balance = balance - amount" guarded by "balance >= amount" (bucket-aware for hot accounts).
+    // Failure means the account is missing or the balance is too low (checked only then).
+    private void debit(UUID accountId, BigDecimal amount, String notFoundMessage, String insufficientMessage) {
+        if (!stripedBalances.debit(accountId, amount)) {
+            if (!accountRepository.existsById(accountId)) {
+                throw new ResourceNotFoundException(notFoundMessage);
+            }
+            throw new InsufficientBalanceException(insufficientMessage);
+        }
+    }
+
+    private void credit(UUID accountId, BigDecimal amount, String notFoundMessage) {
+        if (!stripedBalances.credit(accountId, amount)) {
+            throw new ResourceNotFoundException(notFoundMessage);
+        }
+    }
+
+    @Override
+    public List<TransactionResponseDto> getAccountHistory(UUID accountId) {
+        return accountPostingRepository.findHistory(accountId);
     }
 
     @Override
-    public List<Transaction> getAccountHistory(UUID accountId) {
-        // CHANGE: Call new repository method
-        return transactionRepository.findByFrom_IdOrTo_IdOrderByTransactionDateDesc(accountId, accountId);
+    @Transactional(readOnly = true)
+    public Slice<TransactionResponseDto> getAccountHistoryPage(UUID accountId, TransactionCursor cursor, int size) {
+        // Fetch one extra row to know whether there is a next page
+        Pageable limit = PageRequest.of(0, size + 1);
+
+        List<TransactionResponseDto> page = new ArrayList<>(cursor == null
+                ? accountPostingRepository.findHistoryPage(accountId, limit)
+                : accountPostingRepository.findHistoryPageBefore(
+                        accountId, cursor.getTransactionDate(), cursor.getId(), limit));
+
+        boolean hasNext = page.size() > size;
+        if (hasNext) {
+            page.remove(size);
+        }
+        return new SliceImpl<>(page, PageRequest.of(0, size), hasNext);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAccountHistory(UUID accountId, Consumer<TransactionResponseDto> consumer) {
+        // DTO rows are not managed, the persistence context does not grow with the export
+        try (Stream<TransactionResponseDto> rows = accountPostingRepository.streamHistory(accountId)) {
+            rows.forEach(consumer);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,295 @@
+package com.oredata.banking_api.service.impl;
+
+import com.oredata.banking_api.dto.requestDto.TransactionDto;
+import com.oredata.banking_api.exception.AccessDeniedException;
+import com.oredata.banking_api.exception.ResourceNotFoundException;
+import com.oredata.banking_api.exception.ServiceBusyException;
+import com.oredata.banking_api.model.BatchTransferResult;
+import com.oredata.banking_api.model.TransferOutcome;
+import com.oredata.banking_api.model.entity.TransferRequest;
+import com.oredata.banking_api.model.entity.enums.TransactionStatus;
+import com.oredata.banking_api.repository.AccountRepository;
+import com.oredata.banking_api.repository.TransferRequestRepository;
+import com.oredata.banking_api.service.TransferIntakeService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// ASYNC TRANSFER INTAKE (POST /api/transactions/transfer?async=true)
+// submit() writes the request to the TransferJournal (forced to disk) and returns; the client gets 202.
+// One worker thread applies queued transfers in batches through TransactionServiceImpl.transferBatch
+// and stores each outcome as a TransferRequest row in the same DB transaction. On startup every
+// journal entry that is not DONE is queued again; entries whose row already exists (crash between
+// commit and DONE) are skipped, so each transfer is applied exactly once.
+// Only the sender's owner can submit, and at most queue-capacity transfers wait at a time (then 503).
+// Not available in ledger engine mode: the engine must be the only writer of balances, and it
+// already acknowledges without a per-request DB transaction.
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "banking.ledger.engine.enabled", havingValue = "false", matchIfMissing = true)
+public class TransferIntakeServiceImpl implements TransferIntakeService {
+
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final TransactionServiceImpl transactionService;
+    private final AccountRepository accountRepository;
+    private final TransferRequestRepository transferRequestRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountDirectory accountDirectory;
+    private final TransferJournal journal;
+    private final int batchSize;
+    private final int queueCapacity;
+
+    // Accepted, outcome not stored yet (queued or in the batch being applied); bounds the intake
+    private final Map<UUID, TransferJournal.Entry> pending = new ConcurrentHashMap<>();
+    private final BlockingDeque<TransferJournal.Entry> queue = new LinkedBlockingDeque<>();
+    private final Thread worker = new Thread(this::workLoop, "transfer-intake");
+    private volatile boolean running;
+
+    public TransferIntakeServiceImpl(TransactionServiceImpl transactionService,
+            AccountRepository accountRepository,
+            TransferRequestRepository transferRequestRepository,
+            EntityManager entityManager,
+            PlatformTransactionManager transactionManager,
+            AccountDirectory accountDirectory,
+            @Value("${banking.transfer-intake.journal-dir:./data/transfer-journal}") Path journalDir,
+            @Value("${banking.transfer-intake.segment-size:64MB}") DataSize segmentSize,
+            @Value("${banking.transfer-intake.batch-size:200}") int batchSize,
+            @Value("${banking.transfer-intake.queue-capacity:10000}") int queueCapacity) {
+        this.transactionService = transactionService;
+        this.accountRepository = accountRepository;
+        this.transferRequestRepository = transferRequestRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.accountDirectory = accountDirectory;
+        this.journal = new TransferJournal(journalDir, (int) segmentSize.toBytes());
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+    }
+
+    @PostConstruct
+    void start() {
+        List<TransferJournal.Entry> replay = journal.recover();
+        if (!replay.isEmpty()) {
+            log.info("Transfer intake: replaying {} unapplied journal entries", replay.size());
+        }
+        for (TransferJournal.Entry entry : replay) {
+            pending.put(entry.transferId(), entry);
+            queue.add(entry);
+        }
+        running = true;
+        worker.start();
+    }
+
+    // Applies what is queued, then stops (anything left is replayed on the next start)
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        worker.join();
+        journal.close();
+    }
+
+    @Override
+    public UUID submit(TransactionDto transactionDto) {
+        if (transactionDto.getTargetAccountId() == null && transactionDto.getTargetAccountNumber() == null) {
+            throw new IllegalArgumentException("Target Account ID or Number must be provided");
+        }
+        // Soft bound (concurrent submits may overshoot by a few): the journal and memory do not grow
+        // without limit while the database is slow or down
+        if (pending.size() >= queueCapacity) {
+            throw new ServiceBusyException("Too many transfers waiting to be processed, please retry");
+        }
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        if (!accountRepository.existsByIdAndUser_Username(transactionDto.getSourceAccountId(), username)) {
+            throw accountRepository.existsById(transactionDto.getSourceAccountId())
+                    ? new AccessDeniedException("You do not have permission to transfer from this account!")
+                    : new ResourceNotFoundException("Sender account not found");
+        }
+        // Unknown receiver numbers are refused here (404) rather than accepted and failed later
+        UUID targetId = transactionDto.getTargetAccountId() != null
+                ? transactionDto.getTargetAccountId()
+                : accountDirectory.resolve(transactionDto.getTargetAccountNumber());
+        TransferJournal.Entry entry = new TransferJournal.Entry(UUID.randomUUID(),
+                transactionDto.getSourceAccountId(),
+                targetId,
+                null,
+                transactionDto.getAmount(),
+                username,
+                Instant.now());
+
+        journal.append(entry);
+        pending.put(entry.transferId(), entry);
+        queue.add(entry);
+        return entry.transferId();
+    }
+
+    @Override
+    public TransferOutcome getStatus(UUID transferId) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+
+        TransferJournal.Entry entry = pending.get(transferId);
+        if (entry != null) {
+            checkOwner(entry.username(), username);
+            return TransferOutcome.pending(transferId);
+        }
+        TransferRequest request = transferRequestRepository.findWithTransactionById(transferId)
+                .orElseThrow(() -> new ResourceNotFoundException("Transfer not found"));
+        checkOwner(request.getUsername(), username);
+        return TransferOutcome.of(request);
+    }
+
+    private void checkOwner(String owner, String username) {
+        if (!owner.equals(username)) {
+            throw new AccessDeniedException("You do not have permission to access this transfer!");
+        }
+    }
+
+    private void workLoop() {
+        List<TransferJournal.Entry> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                TransferJournal.Entry first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                // Whatever arrived while the previous batch was being applied goes into this one
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+
+                apply(batch);
+                journal.markDone(batch.stream().map(TransferJournal.Entry::transferId).toList());
+                batch.forEach(applied -> pending.remove(applied.transferId()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // DB unavailable etc.: put the batch back (in order) and try again later.
+                // The entries are still in the journal, a shutdown now replays them on the next start.
+                log.error("Transfer intake: batch of {} transfers could not be applied", batch.size(), e);
+                if (!running) {
+                    return;
+                }
+                for (int i = batch.size() - 1; i >= 0; i--) {
+                    queue.addFirst(batch.get(i));
+                }
+                if (!pause()) {
+                    return;
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(1000);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // Whole batch in one DB transaction, retried on lock conflicts. Business rejections (balance, unknown
+    // account) are results of transferBatch, stored as FAILED rows. Of the exceptions, only a constraint
+    // violation is about the transfers themselves: the batch is split and the transfer that still
+    // violates it is stored as FAILED. Anything else (connection lost, timeout, conflicts that outlast
+    // the retries) says nothing about the transfers: it is thrown and the worker queues the batch again.
+    private void apply(List<TransferJournal.Entry> batch) throws InterruptedException {
+        try {
+            applyWithRetries(batch);
+        } catch (DataIntegrityViolationException e) {
+            if (batch.size() > 1) {
+                for (TransferJournal.Entry entry : batch) {
+                    apply(List.of(entry));
+                }
+                return;
+            }
+            TransferJournal.Entry entry = batch.get(0);
+            log.warn("Transfer intake: transfer {} rejected by the database", entry.transferId(), e);
+            transactionTemplate.executeWithoutResult(status -> entityManager.persist(
+                    outcome(entry, BatchTransferResult.failure(0, "The transfer could not be processed"), LocalDateTime.now())));
+        }
+    }
+
+    private void applyWithRetries(List<TransferJournal.Entry> batch) throws InterruptedException {
+        for (int attempt = 1;; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> applyInTransaction(batch));
+                return;
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+                Thread.sleep(ThreadLocalRandom.current().nextLong(10L << attempt));
+            }
+        }
+    }
+
+    private void applyInTransaction(List<TransferJournal.Entry> batch) {
+        Set<UUID> applied = new HashSet<>(transferRequestRepository.findExistingIds(
+                batch.stream().map(TransferJournal.Entry::transferId).toList()));
+        List<TransferJournal.Entry> todo = batch.stream()
+                .filter(entry -> !applied.contains(entry.transferId()))
+                .toList();
+        if (todo.isEmpty()) {
+            return;
+        }
+
+        List<TransactionDto> transfers = todo.stream().map(TransferIntakeServiceImpl::toDto).toList();
+        List<BatchTransferResult> results = transactionService.transferBatch(transfers, true);
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < todo.size(); i++) {
+            entityManager.persist(outcome(todo.get(i), results.get(i), now));
+        }
+    }
+
+    private static TransferRequest outcome(TransferJournal.Entry entry, BatchTransferResult result, LocalDateTime now) {
+        return TransferRequest.builder()
+                .id(entry.transferId())
+                .username(entry.username())
+                .status(result.isSuccess() ? TransactionStatus.SUCCESS : TransactionStatus.FAILED)
+                .transaction(result.getTransaction())
+                .error(result.getError())
+                .acceptedAt(LocalDateTime.ofInstant(entry.acceptedAt(), ZoneId.systemDefault()))
+                .completedAt(now)
+                .build();
+    }
+
+    private static TransactionDto toDto(TransferJournal.Entry entry) {
+        TransactionDto dto = new TransactionDto();
+        dto.setSourceAccountId(entry.sourceAccountId());
+        dto.setTargetAccountId(entry.targetAccountId());
+        dto.setTargetAccountNumber(entry.targetAccountNumber());
+        dto.setAmount(entry.amount());
+        return dto;
+    }
+}
@@ -0,0 +1,320 @@
+package com.oredata.banking_api.service.impl;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Append-only journal of accepted async transfers, in memory-mapped segment files
+// (transfers-<n>.log, fixed size, zero-filled). Used by TransferIntakeServiceImpl.
+//
+// Record: [int length][int crc32][byte type][payload], length/crc cover type + payload.
+// - ACCEPTED: the transfer request; forced to disk before the client gets its 202.
+//   Group commit: records are written under the lock, forced outside it. One appender at a time
+//   (the leader) forces everything written so far, the appends waiting behind it are covered by
+//   that force and return without one of their own.
+// - DONE: the transfer id; written after the DB commit, not forced (the DB row is the real proof).
+// Reading stops at the first zero length or bad checksum (end of data / torn write).
+// A segment is deleted once every transfer accepted in it is DONE; after a restart writing always
+// continues in a new segment.
+public class TransferJournal implements AutoCloseable {
+
+    private static final byte ACCEPTED = 1;
+    private static final byte DONE = 2;
+    private static final int HEADER = 8; // length + crc
+
+    private final Path directory;
+    private final int segmentSize;
+    // Serialises writes. Not synchronized: waiting appends would pin their virtual threads
+    private final ReentrantLock lock = new ReentrantLock();
+    // Held by the leader while it forces; only the leader moves unforcedFrom forward
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private long written; // ACCEPTED records written so far (guarded by lock)
+    private int unforcedFrom; // Start of the active segment's bytes not forced yet (guarded by lock)
+    private final AtomicLong durable = new AtomicLong(); // ACCEPTED records known to be on disk
+
+    private final TreeMap<Long, Integer> pendingBySegment = new TreeMap<>();
+    private final Map<UUID, Long> segmentOf = new HashMap<>();
+    private long activeSegment;
+    private MappedByteBuffer active;
+
+    public TransferJournal(Path directory, int segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    // Reads all segments and returns the transfers that are not DONE, in acceptance order.
+    // Must be called once, before the first append.
+    public List<Entry> recover() {
+        lock.lock();
+        try {
+            Files.createDirectories(directory);
+            Map<UUID, Entry> pending = new LinkedHashMap<>();
+            long lastSegment = 0;
+            for (long segment : listSegments()) {
+                lastSegment = segment;
+                readSegment(segment, pending);
+            }
+            for (Entry entry : pending.values()) {
+                pendingBySegment.merge(segmentOf.get(entry.transferId()), 1, Integer::sum);
+            }
+            segmentOf.keySet().retainAll(pending.keySet());
+            for (long segment : listSegments()) {
+                if (!pendingBySegment.containsKey(segment)) {
+                    Files.deleteIfExists(segmentPath(segment));
+                }
+            }
+            openSegment(lastSegment + 1);
+            return new ArrayList<>(pending.values());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Durable when it returns
+    public void append(Entry entry) {
+        byte[] payload = encode(entry);
+        long sequence;
+        lock.lock();
+        try {
+            write(ACCEPTED, payload);
+            sequence = ++written;
+            pendingBySegment.merge(activeSegment, 1, Integer::sum);
+            segmentOf.put(entry.transferId(), activeSegment);
+        } finally {
+            lock.unlock();
+        }
+        awaitDurable(sequence);
+    }
+
+    // Waits for the current leader, then returns if its force covered the record, or leads the next one
+    private void awaitDurable(long sequence) {
+        while (durable.get() < sequence) {
+            flushLock.lock();
+            try {
+                if (durable.get() >= sequence) {
+                    return;
+                }
+                MappedByteBuffer buffer;
+                int from;
+                int to;
+                long upTo;
+                lock.lock();
+                try {
+                    buffer = active;
+                    from = unforcedFrom;
+                    to = active.position();
+                    upTo = written;
+                } finally {
+                    lock.unlock();
+                }
+                buffer.force(from, to - from); // If it throws, the next leader forces the range again
+                lock.lock();
+                try {
+                    if (buffer == active) { // Else rolled meanwhile, the new segment starts at 0
+                        unforcedFrom = to;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                durable.accumulateAndGet(upTo, Math::max);
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    public void markDone(Collection<UUID> transferIds) {
+        lock.lock();
+        try {
+            for (UUID transferId : transferIds) {
+                write(DONE, uuidBytes(transferId));
+                Long segment = segmentOf.remove(transferId);
+                if (segment != null && pendingBySegment.merge(segment, -1, Integer::sum) == 0) {
+                    pendingBySegment.remove(segment);
+                    if (segment != activeSegment) {
+                        Files.deleteIfExists(segmentPath(segment));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (active != null) {
+                active.force();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Rolls to a new segment when the active one is full
+    private void write(byte type, byte[] payload) {
+        int length = 1 + payload.length;
+        if (active.remaining() < HEADER + length + HEADER) { // Keep room for a terminating zero length
+            if (pendingBySegment.containsKey(activeSegment)) {
+                // Once per segment, under the lock: leaders only ever force the active segment
+                active.force();
+            } else {
+                try {
+                    Files.deleteIfExists(segmentPath(activeSegment));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            durable.accumulateAndGet(written, Math::max);
+            openSegment(activeSegment + 1);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(payload);
+
+        active.putInt(length);
+        active.putInt((int) crc.getValue());
+        active.put(type);
+        active.put(payload);
+    }
+
+    private void openSegment(long segment) {
+        try (RandomAccessFile file = new RandomAccessFile(segmentPath(segment).toFile(), "rw")) {
+            file.setLength(segmentSize);
+            active = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            activeSegment = segment;
+            unforcedFrom = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void readSegment(long segment, Map<UUID, Entry> pending) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(segment))) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            while (buffer.remaining() >= HEADER) {
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length <= 0 || length > buffer.remaining()) {
+                    break;
+                }
+                byte[] record = new byte[length];
+                buffer.get(record);
+                CRC32 crc = new CRC32();
+                crc.update(record);
+                if ((int) crc.getValue() != checksum) {
+                    break; // Torn write at the end of the segment
+                }
+                ByteBuffer body = ByteBuffer.wrap(record, 1, length - 1);
+                if (record[0] == ACCEPTED) {
+                    Entry entry = decode(body);
+                    pending.put(entry.transferId(), entry);
+                    segmentOf.put(entry.transferId(), segment);
+                } else if (record[0] == DONE) {
+                    pending.remove(new UUID(body.getLong(), body.getLong()));
+                }
+            }
+        }
+    }
+
+    private List<Long> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith("transfers-") && name.endsWith(".log"))
+                    .map(name -> Long.parseLong(name.substring("transfers-".length(), name.length() - ".log".length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(String.format("transfers-%016d.log", segment));
+    }
+
+    private static byte[] encode(Entry entry) {
+        byte[] number = bytes(entry.targetAccountNumber());
+        byte[] amount = bytes(entry.amount().toPlainString());
+        byte[] username = bytes(entry.username());
+        ByteBuffer buffer = ByteBuffer.allocate(16 + 16 + 1 + 16 + 2 + number.length + 2 + amount.length
+                + 2 + username.length + 8);
+        putUuid(buffer, entry.transferId());
+        putUuid(buffer, entry.sourceAccountId());
+        buffer.put((byte) (entry.targetAccountId() != null ? 1 : 0));
+        putUuid(buffer, entry.targetAccountId() != null ? entry.targetAccountId() : new UUID(0, 0));
+        putString(buffer, number);
+        putString(buffer, amount);
+        putString(buffer, username);
+        buffer.putLong(entry.acceptedAt().toEpochMilli());
+        return buffer.array();
+    }
+
+    private static Entry decode(ByteBuffer buffer) {
+        UUID transferId = new UUID(buffer.getLong(), buffer.getLong());
+        UUID sourceAccountId = new UUID(buffer.getLong(), buffer.getLong());
+        boolean hasTargetId = buffer.get() == 1;
+        UUID targetAccountId = new UUID(buffer.getLong(), buffer.getLong());
+        String targetAccountNumber = getString(buffer);
+        BigDecimal amount = new BigDecimal(getString(buffer));
+        String username = getString(buffer);
+        Instant acceptedAt = Instant.ofEpochMilli(buffer.getLong());
+        return new Entry(transferId, sourceAccountId, hasTargetId ? targetAccountId : null,
+                targetAccountNumber.isEmpty() ? null : targetAccountNumber, amount, username, acceptedAt);
+    }
+
+    private static byte[] uuidBytes(UUID id) {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        putUuid(buffer, id);
+        return buffer.array();
+    }
+
+    private static void putUuid(ByteBuffer buffer, UUID id) {
+        buffer.putLong(id.getMostSignificantBits());
+        buffer.putLong(id.getLeastSignificantBits());
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        buffer.putShort((short) value.length);
+        buffer.put(value);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] value = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    public record Entry(UUID transferId, UUID sourceAccountId, UUID targetAccountId, String targetAccountNumber,
+            BigDecimal amount, String username, Instant acceptedAt) {
+    }
+}
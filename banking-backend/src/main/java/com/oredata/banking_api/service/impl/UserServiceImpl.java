@@ -1,20 +1,33 @@
 package com.oredata.banking_api.service.impl;
 
 import com.oredata.banking_api.config.security.JwtService;
+import com.oredata.banking_api.config.security.UserDetailsCache;
 import com.oredata.banking_api.dto.requestDto.LoginRequestDto;
+import com.oredata.banking_api.dto.requestDto.RefreshTokenRequestDto;
 import com.oredata.banking_api.dto.responseDto.LoginResponseDto;
 import com.oredata.banking_api.dto.requestDto.RegisterRequestDto; // NEW NAME
+import com.oredata.banking_api.dto.requestDto.UserCursor;
+import com.oredata.banking_api.dto.responseDto.RegisterResponseDto;
 import com.oredata.banking_api.model.entity.User;
 import com.oredata.banking_api.repository.UserRepository;
+import com.oredata.banking_api.service.RefreshTokenService;
 import com.oredata.banking_api.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
-import com.oredata.banking_api.exception.ResourceNotFoundException;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -24,6 +37,9 @@ public class UserServiceImpl implements UserService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
+    private final UserDetailsCache userDetailsCache;
+    private final BankingMetrics metrics;
+    private final RefreshTokenService refreshTokenService;
 
     @Override
     public User registerUser(RegisterRequestDto registerRequestDto) {
@@ -33,26 +49,65 @@ public class UserServiceImpl implements UserService {
         user.setPassword(passwordEncoder.encode(registerRequestDto.getPassword()));
         user.setEmail(registerRequestDto.getEmail());
 
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        // Drop any stale principal cached under this username
+        userDetailsCache.evict(savedUser.getUsername());
+        return savedUser;
     }
 
     @Override
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    public Slice<RegisterResponseDto> getUsersPage(UserCursor cursor, int size) {
+        // Fetch one extra row to know whether there is a next page
+        Pageable limit = PageRequest.of(0, size + 1);
+
+        List<RegisterResponseDto> page = new ArrayList<>(cursor == null
+                ? userRepository.findListingPage(limit)
+                : userRepository.findListingPageAfter(cursor.getUsername(), limit));
+
+        boolean hasNext = page.size() > size;
+        if (hasNext) {
+            page.remove(size);
+        }
+        return new SliceImpl<>(page, PageRequest.of(0, size), hasNext);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportUsers(Consumer<RegisterResponseDto> consumer) {
+        // DTO rows are not managed, the persistence context does not grow with the listing
+        try (Stream<RegisterResponseDto> rows = userRepository.streamListing()) {
+            rows.forEach(consumer);
+        }
     }
 
     @Override
     public LoginResponseDto login(LoginRequestDto loginRequestDto) {
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        loginRequestDto.getUsername(),
-                        loginRequestDto.getPassword()));
+        return metrics.time("login", () -> {
+            Authentication authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                            loginRequestDto.getUsername(),
+                            loginRequestDto.getPassword()));
 
-        User user = userRepository.findByUsername(loginRequestDto.getUsername())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+            // The principal is the User loaded for the password check, no second lookup
+            User user = (User) authentication.getPrincipal();
 
-        String jwtToken = jwtService.generateToken(user);
+            String jwtToken = jwtService.generateToken(user);
 
-        return new LoginResponseDto(jwtToken, user.getId());
+            return new LoginResponseDto(jwtToken, user.getId(), refreshTokenService.issue(user));
+        });
+    }
+
+    @Override
+    public LoginResponseDto refresh(RefreshTokenRequestDto refreshTokenRequestDto) {
+        return metrics.time("refresh", () -> {
+            RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshTokenRequestDto.getRefreshToken());
+            return new LoginResponseDto(jwtService.generateToken(rotation.username()), rotation.userId(),
+                    rotation.refreshToken());
+        });
+    }
+
+    @Override
+    public void logout(RefreshTokenRequestDto refreshTokenRequestDto) {
+        refreshTokenService.revoke(refreshTokenRequestDto.getRefreshToken());
     }
 }
\ No newline at end of file
@@ -0,0 +1,109 @@
+-- Schema as Hibernate created it (spring.jpa.hibernate.ddl-auto=update) up to this release.
+-- Every statement is IF NOT EXISTS: on a database that Hibernate already built, Flyway baselines
+-- at version 0 (spring.flyway.baseline-on-migrate) and this script only adds what is missing.
+
+CREATE TABLE IF NOT EXISTS users (
+    id uuid NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    updated_at timestamp(6) NOT NULL,
+    email varchar(255) NOT NULL,
+    password varchar(255) NOT NULL,
+    username varchar(255) NOT NULL,
+    CONSTRAINT users_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email),
+    CONSTRAINT uk_users_username UNIQUE (username)
+);
+
+CREATE TABLE IF NOT EXISTS accounts (
+    id uuid NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    updated_at timestamp(6) NOT NULL,
+    balance numeric(38,2) NOT NULL,
+    name varchar(255) NOT NULL,
+    number varchar(255) NOT NULL,
+    stripes integer DEFAULT 0 NOT NULL,
+    version bigint,
+    user_id uuid NOT NULL REFERENCES users,
+    CONSTRAINT accounts_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_accounts_number UNIQUE (number)
+);
+-- Columns added to the first release's tables since then (IF NOT EXISTS skipped the table above)
+ALTER TABLE accounts ADD COLUMN IF NOT EXISTS stripes integer DEFAULT 0 NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_accounts_user ON accounts (user_id);
+
+CREATE TABLE IF NOT EXISTS account_balance_buckets (
+    id uuid NOT NULL,
+    balance numeric(38,2) NOT NULL,
+    bucket integer NOT NULL,
+    account_id uuid NOT NULL REFERENCES accounts,
+    CONSTRAINT account_balance_buckets_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_account_balance_buckets_account_bucket UNIQUE (account_id, bucket)
+);
+
+CREATE SEQUENCE IF NOT EXISTS transactions_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS transactions (
+    id bigint NOT NULL,
+    amount numeric(38,2) NOT NULL,
+    status varchar(255) NOT NULL CHECK (status IN ('SUCCESS', 'FAILED')),
+    transaction_date timestamp(6) NOT NULL,
+    type varchar(255) CHECK (type IN ('TRANSFER', 'DEPOSIT', 'WITHDRAWAL')),
+    from_account_id uuid NOT NULL REFERENCES accounts,
+    to_account_id uuid NOT NULL REFERENCES accounts,
+    CONSTRAINT transactions_pkey PRIMARY KEY (id)
+);
+CREATE INDEX IF NOT EXISTS idx_transactions_from_date_id ON transactions (from_account_id, transaction_date, id);
+CREATE INDEX IF NOT EXISTS idx_transactions_to_date_id ON transactions (to_account_id, transaction_date, id);
+
+CREATE SEQUENCE IF NOT EXISTS account_postings_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS account_postings (
+    id bigint NOT NULL,
+    amount numeric(38,2) NOT NULL,
+    posted_at timestamp(6) NOT NULL,
+    account_id uuid NOT NULL REFERENCES accounts,
+    transaction_id bigint NOT NULL REFERENCES transactions,
+    CONSTRAINT account_postings_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_account_postings_transaction_account UNIQUE (transaction_id, account_id)
+);
+CREATE INDEX IF NOT EXISTS idx_account_postings_account_posted ON account_postings (account_id, posted_at, transaction_id);
+
+CREATE TABLE IF NOT EXISTS transfer_requests (
+    id uuid NOT NULL,
+    accepted_at timestamp(6) NOT NULL,
+    completed_at timestamp(6) NOT NULL,
+    error varchar(500),
+    status varchar(255) NOT NULL CHECK (status IN ('SUCCESS', 'FAILED')),
+    username varchar(255) NOT NULL,
+    transaction_id bigint REFERENCES transactions,
+    CONSTRAINT transfer_requests_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    id varchar(200) NOT NULL,
+    completed_at timestamp(6),
+    created_at timestamp(6) NOT NULL,
+    operation varchar(20) NOT NULL,
+    request_hash varchar(64) NOT NULL,
+    response varchar(2000),
+    CONSTRAINT idempotency_keys_pkey PRIMARY KEY (id)
+);
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_created_at ON idempotency_keys (created_at);
+
+CREATE TABLE IF NOT EXISTS number_allocations (
+    name varchar(50) NOT NULL,
+    next_value bigint NOT NULL,
+    CONSTRAINT number_allocations_pkey PRIMARY KEY (name)
+);
+
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    token_hash varchar(64) NOT NULL,
+    expires_at timestamp(6) NOT NULL,
+    family uuid NOT NULL,
+    used_at timestamp(6),
+    user_id uuid NOT NULL,
+    username varchar(255) NOT NULL,
+    CONSTRAINT refresh_tokens_pkey PRIMARY KEY (token_hash)
+);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_family ON refresh_tokens (family);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expires_at ON refresh_tokens (expires_at);
@@ -0,0 +1,127 @@
+-- Monthly range partitions for the two tables that grow with every money movement:
+-- transactions by transaction_date, account_postings by posted_at.
+-- - History reads match the date in their join, so a transaction is looked up in its own month's
+--   partition; history pages bound posted_at by the cursor and skip the later months. The full history
+--   and the export read every partition (AccountPostingRepository). Partitions stay small enough to be cached.
+-- - Old months leave with DETACH PARTITION instead of a DELETE over the whole table (see readme).
+-- A partitioned table's primary and unique keys must contain the partition column, so no foreign key
+-- can reference transactions(id) any more: postings and transfer requests keep the id, the
+-- application writes them in the same database transaction as the transaction row.
+--
+-- Rewrites both tables in one database transaction, holding an ACCESS EXCLUSIVE lock: stop the
+-- backends before upgrading a database with a large history.
+
+-- Creates the missing monthly partitions <parent>_YYYY_MM of a table partitioned by month,
+-- for every month from from_date to to_date inclusive. Returns the number of partitions created.
+-- Called by this migration and by the application (PartitionMaintenance), daily.
+CREATE OR REPLACE FUNCTION create_monthly_partitions(parent regclass, from_date timestamp, to_date timestamp)
+RETURNS integer
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    month timestamp := date_trunc('month', from_date);
+    partition_name text;
+    created integer := 0;
+BEGIN
+    -- Nodes running it at the same time wait for each other instead of failing on a duplicate table
+    PERFORM pg_advisory_xact_lock(hashtext('create_monthly_partitions'));
+    WHILE month <= to_date LOOP
+        partition_name := parent::text || '_' || to_char(month, 'YYYY_MM');
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF %s FOR VALUES FROM (%L) TO (%L)',
+                    partition_name, parent, month, month + interval '1 month');
+            created := created + 1;
+        END IF;
+        month := month + interval '1 month';
+    END LOOP;
+    RETURN created;
+END;
+$$;
+
+LOCK TABLE transactions, account_postings IN ACCESS EXCLUSIVE MODE;
+
+-- 1. Drop the foreign keys that reference transactions (postings, transfer requests)
+DO $$
+DECLARE
+    fk record;
+BEGIN
+    FOR fk IN SELECT conrelid::regclass AS referencing, conname
+              FROM pg_constraint
+              WHERE contype = 'f' AND confrelid = 'transactions'::regclass LOOP
+        EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', fk.referencing, fk.conname);
+    END LOOP;
+END;
+$$;
+
+-- 2. Move the unpartitioned tables aside, freeing the constraint and index names
+ALTER TABLE transactions RENAME TO transactions_unpartitioned;
+ALTER TABLE transactions_unpartitioned DROP CONSTRAINT transactions_pkey;
+DROP INDEX IF EXISTS idx_transactions_from_date_id;
+DROP INDEX IF EXISTS idx_transactions_to_date_id;
+
+ALTER TABLE account_postings RENAME TO account_postings_unpartitioned;
+ALTER TABLE account_postings_unpartitioned DROP CONSTRAINT account_postings_pkey;
+ALTER TABLE account_postings_unpartitioned DROP CONSTRAINT IF EXISTS uk_account_postings_transaction_account;
+DROP INDEX IF EXISTS idx_account_postings_account_posted;
+
+-- 3. Partitioned tables
+-- The primary key INCLUDEs the columns the history reads, so its join from the postings is an
+-- index-only scan
+CREATE TABLE transactions (
+    id bigint NOT NULL,
+    amount numeric(38,2) NOT NULL,
+    status varchar(255) NOT NULL CHECK (status IN ('SUCCESS', 'FAILED')),
+    transaction_date timestamp(6) NOT NULL,
+    type varchar(255) CHECK (type IN ('TRANSFER', 'DEPOSIT', 'WITHDRAWAL')),
+    from_account_id uuid NOT NULL REFERENCES accounts,
+    to_account_id uuid NOT NULL REFERENCES accounts,
+    CONSTRAINT transactions_pkey PRIMARY KEY (id, transaction_date)
+        INCLUDE (from_account_id, to_account_id, amount, type, status)
+) PARTITION BY RANGE (transaction_date);
+CREATE INDEX idx_transactions_from_date_id ON transactions (from_account_id, transaction_date, id);
+CREATE INDEX idx_transactions_to_date_id ON transactions (to_account_id, transaction_date, id);
+
+-- posted_at is always the transaction_date of the posting's transaction
+CREATE TABLE account_postings (
+    id bigint NOT NULL,
+    amount numeric(38,2) NOT NULL,
+    posted_at timestamp(6) NOT NULL,
+    account_id uuid NOT NULL REFERENCES accounts,
+    transaction_id bigint NOT NULL,
+    CONSTRAINT account_postings_pkey PRIMARY KEY (id, posted_at),
+    CONSTRAINT uk_account_postings_transaction_account UNIQUE (transaction_id, account_id, posted_at)
+) PARTITION BY RANGE (posted_at);
+CREATE INDEX idx_account_postings_account_posted ON account_postings (account_id, posted_at, transaction_id);
+
+-- 4. Partitions for the existing rows and the next three months (then kept ahead by the application).
+-- Postings get every month that has transactions too: a database older than account_postings has
+-- none yet, and V3 backfills them into the months of their transactions.
+SELECT create_monthly_partitions('transactions',
+        COALESCE((SELECT MIN(transaction_date) FROM transactions_unpartitioned), localtimestamp),
+        GREATEST((SELECT MAX(transaction_date) FROM transactions_unpartitioned),
+                localtimestamp + interval '3 months'));
+SELECT create_monthly_partitions('account_postings',
+        COALESCE(LEAST((SELECT MIN(posted_at) FROM account_postings_unpartitioned),
+                (SELECT MIN(transaction_date) FROM transactions_unpartitioned)), localtimestamp),
+        GREATEST((SELECT MAX(posted_at) FROM account_postings_unpartitioned),
+                (SELECT MAX(transaction_date) FROM transactions_unpartitioned),
+                localtimestamp + interval '3 months'));
+
+-- 5. Copy, then drop the unpartitioned tables
+INSERT INTO transactions (id, amount, status, transaction_date, type, from_account_id, to_account_id)
+SELECT id, amount, status, transaction_date, type, from_account_id, to_account_id
+FROM transactions_unpartitioned;
+INSERT INTO account_postings (id, amount, posted_at, account_id, transaction_id)
+SELECT id, amount, posted_at, account_id, transaction_id
+FROM account_postings_unpartitioned;
+
+DROP TABLE transactions_unpartitioned;
+DROP TABLE account_postings_unpartitioned;
+
+-- 6. Transaction ids come from transactions_seq (allocationSize = 50, pooled-lo optimizer: each
+-- nextval is the LOW end of a block of 50). Databases created before the sequence used an identity
+-- column, dropped with the old table: position the sequence at the first free id.
+SELECT setval('transactions_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM transactions), false);
+
+ANALYZE transactions;
+ANALYZE account_postings;
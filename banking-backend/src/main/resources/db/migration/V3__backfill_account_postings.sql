@@ -0,0 +1,27 @@
+-- Postings for the transactions written before account_postings existed: history is read from the
+-- postings only, so without them older accounts would show an empty history after the upgrade.
+-- Same rows as AccountPosting.of:
+--   deposit: +amount on the receiver, withdrawal: -amount on the sender,
+--   transfer: -amount on the sender and +amount on the receiver (to self: one 0 row).
+-- Transactions that already have postings are skipped, so the script can be run again safely
+-- (AccountPostingBackfill does the same in chunks for databases not managed by Flyway).
+INSERT INTO account_postings (id, amount, posted_at, account_id, transaction_id)
+SELECT nextval('account_postings_seq'), p.amount, t.transaction_date, p.account_id, t.id
+FROM transactions t
+CROSS JOIN LATERAL (
+    SELECT t.to_account_id, t.amount WHERE t.type = 'DEPOSIT'
+    UNION ALL
+    SELECT t.from_account_id, -t.amount WHERE t.type = 'WITHDRAWAL'
+    UNION ALL
+    SELECT t.from_account_id, 0 WHERE t.type = 'TRANSFER' AND t.from_account_id = t.to_account_id
+    UNION ALL
+    SELECT t.from_account_id, -t.amount WHERE t.type = 'TRANSFER' AND t.from_account_id <> t.to_account_id
+    UNION ALL
+    SELECT t.to_account_id, t.amount WHERE t.type = 'TRANSFER' AND t.from_account_id <> t.to_account_id
+) AS p (account_id, amount)
+WHERE NOT EXISTS (
+    SELECT 1 FROM account_postings e
+    WHERE e.transaction_id = t.id AND e.posted_at = t.transaction_date
+);
+
+ANALYZE account_postings;
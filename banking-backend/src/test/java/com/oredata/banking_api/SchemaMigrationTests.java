@@ -0,0 +1,153 @@
+package com.oredata.banking_api;
+
+import jakarta.persistence.Entity;
+import org.flywaydb.core.Flyway;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+// The Flyway migrations (db/migration) on PostgreSQL, each test in a scratch schema of the
+// development database: an empty database, and one created by the first release (ddl-auto=update).
+@SpringBootTest
+class SchemaMigrationTests {
+
+	@Autowired
+	private DataSourceProperties dataSourceProperties;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private String schema;
+	private DataSource scratch;
+	private JdbcTemplate scratchJdbc;
+
+	@BeforeEach
+	void setUp() {
+		schema = "migration_test_" + Long.toHexString(System.nanoTime());
+		jdbcTemplate.execute("CREATE SCHEMA " + schema);
+		String url = dataSourceProperties.getUrl();
+		scratch = new DriverManagerDataSource(url + (url.contains("?") ? "&" : "?") + "currentSchema=" + schema,
+				dataSourceProperties.getUsername(), dataSourceProperties.getPassword());
+		scratchJdbc = new JdbcTemplate(scratch);
+	}
+
+	@AfterEach
+	void tearDown() {
+		jdbcTemplate.execute("DROP SCHEMA " + schema + " CASCADE");
+	}
+
+	@Test
+	void createsThePartitionedSchemaOnAnEmptyDatabase() {
+		migrate();
+
+		assertThat(partitionedTables()).containsExactlyInAnyOrder("transactions", "account_postings");
+		LocalDate month = LocalDate.now().withDayOfMonth(1);
+		for (int i = 0; i <= 3; i++) {
+			assertThat(partitionsOf("transactions")).contains(partition("transactions", month.plusMonths(i)));
+			assertThat(partitionsOf("account_postings")).contains(partition("account_postings", month.plusMonths(i)));
+		}
+		assertThat(scratchJdbc.queryForObject("SELECT nextval('transactions_seq')", Long.class)).isEqualTo(1L);
+		assertEntitiesMatchTheSchema();
+	}
+
+	@Test
+	void upgradesADatabaseOfTheFirstRelease() {
+		new ResourceDatabasePopulator(new ClassPathResource("db/legacy_schema.sql")).execute(scratch);
+
+		migrate();
+
+		assertThat(partitionedTables()).containsExactlyInAnyOrder("transactions", "account_postings");
+		assertThat(partitionsOf("transactions"))
+				.contains(partition("transactions", LocalDate.of(2024, 1, 1)), partition("transactions", LocalDate.of(2024, 3, 1)));
+		assertThat(scratchJdbc.queryForList("SELECT id FROM transactions ORDER BY id", Long.class))
+				.containsExactly(1L, 2L, 3L);
+		// Ids continue after the rows of the old identity column
+		assertThat(scratchJdbc.queryForObject("SELECT nextval('transactions_seq')", Long.class)).isEqualTo(4L);
+		// Backfilled postings (V3) add up to the balances
+		assertThat(postingTotal("00000000-0000-0000-0000-00000000000a")).isEqualByComparingTo("65.00");
+		assertThat(postingTotal("00000000-0000-0000-0000-00000000000b")).isEqualByComparingTo("30.00");
+		assertThat(scratchJdbc.queryForObject("SELECT count(*) FROM account_postings", Integer.class)).isEqualTo(4);
+		assertThat(scratchJdbc.queryForList("SELECT stripes FROM accounts", Integer.class)).containsOnly(0);
+		assertEntitiesMatchTheSchema();
+	}
+
+	private void migrate() {
+		Flyway.configure()
+				.dataSource(scratch)
+				.schemas(schema)
+				.baselineOnMigrate(true)
+				.baselineVersion("0")
+				.load()
+				.migrate();
+	}
+
+	// What spring.jpa.hibernate.ddl-auto=validate would check at startup, with the application's naming
+	private void assertEntitiesMatchTheSchema() {
+		StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+				.applySettings(Map.of(
+						AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, scratch,
+						AvailableSettings.DEFAULT_SCHEMA, schema,
+						AvailableSettings.PHYSICAL_NAMING_STRATEGY, new CamelCaseToUnderscoresNamingStrategy(),
+						AvailableSettings.IMPLICIT_NAMING_STRATEGY, new SpringImplicitNamingStrategy()))
+				.build();
+		try {
+			MetadataSources sources = new MetadataSources(registry);
+			ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+			scanner.addIncludeFilter(new AnnotationTypeFilter(Entity.class));
+			scanner.findCandidateComponents("com.oredata.banking_api.model.entity")
+					.forEach(entity -> sources.addAnnotatedClassName(entity.getBeanClassName()));
+
+			try (SessionFactory sessionFactory = sources.buildMetadata().buildSessionFactory()) {
+				assertThatCode(() -> sessionFactory.getSchemaManager().validateMappedObjects())
+						.doesNotThrowAnyException();
+			}
+		} finally {
+			StandardServiceRegistryBuilder.destroy(registry);
+		}
+	}
+
+	private List<String> partitionedTables() {
+		return scratchJdbc.queryForList("SELECT c.relname FROM pg_partitioned_table p "
+				+ "JOIN pg_class c ON c.oid = p.partrelid JOIN pg_namespace n ON n.oid = c.relnamespace "
+				+ "WHERE n.nspname = ?", String.class, schema);
+	}
+
+	private List<String> partitionsOf(String table) {
+		return scratchJdbc.queryForList("SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+				+ "WHERE i.inhparent = ?::regclass", String.class, table);
+	}
+
+	private static String partition(String table, LocalDate month) {
+		return String.format("%s_%d_%02d", table, month.getYear(), month.getMonthValue());
+	}
+
+	private BigDecimal postingTotal(String accountId) {
+		return scratchJdbc.queryForObject("SELECT COALESCE(SUM(amount), 0) FROM account_postings WHERE account_id = ?::uuid",
+				BigDecimal.class, accountId);
+	}
+}
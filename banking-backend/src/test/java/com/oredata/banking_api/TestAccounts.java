@@ -0,0 +1,63 @@
+package com.oredata.banking_api;
+
+import com.oredata.banking_api.model.entity.Account;
+import com.oredata.banking_api.model.entity.User;
+import com.oredata.banking_api.repository.AccountRepository;
+import com.oredata.banking_api.repository.UserRepository;
+import com.oredata.banking_api.service.impl.AccountDirectory;
+import com.oredata.banking_api.service.impl.AccountNumberGenerator;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+// Users and accounts for the service tests, saved straight through the repositories.
+// Names are random: the tests share the development database.
+public class TestAccounts {
+
+	private final UserRepository userRepository;
+	private final AccountRepository accountRepository;
+	private final AccountNumberGenerator numberGenerator;
+	private final AccountDirectory accountDirectory;
+
+	public TestAccounts(ApplicationContext context) {
+		this.userRepository = context.getBean(UserRepository.class);
+		this.accountRepository = context.getBean(AccountRepository.class);
+		this.numberGenerator = context.getBean(AccountNumberGenerator.class);
+		this.accountDirectory = context.getBean(AccountDirectory.class);
+	}
+
+	public User user() {
+		String username = "test-" + UUID.randomUUID();
+		return userRepository.save(User.builder()
+				.username(username)
+				.password("{noop}secret")
+				.email(username + "@oredata.com")
+				.build());
+	}
+
+	public Account account(User user, String balance) {
+		Account account = accountRepository.save(Account.builder()
+				.name("Test")
+				.number(numberGenerator.next())
+				.balance(new BigDecimal(balance))
+				.user(user)
+				.build());
+		accountDirectory.add(account.getNumber(), account.getId(), user.getId());
+		return account;
+	}
+
+	// Main balance plus buckets, as clients see it
+	public BigDecimal balance(Account account) {
+		return accountRepository.findById(account.getId()).orElseThrow().getAvailableBalance();
+	}
+
+	// The services read the caller from the security context (thread-local)
+	public static void authenticate(User user) {
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(user.getUsername(), null, List.of()));
+	}
+}
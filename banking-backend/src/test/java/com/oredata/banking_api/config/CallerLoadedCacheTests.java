@@ -0,0 +1,76 @@
+package com.oredata.banking_api.config;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CallerLoadedCacheTests {
+
+	private final AsyncCache<String, String> cache = Caffeine.newBuilder().buildAsync();
+
+	// The load read the old value, the eviction came while it was still running
+	@Test
+	void loadOverlappingAnEvictionDoesNotCacheTheOldValue() throws Exception {
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch evicted = new CountDownLatch(1);
+		CompletableFuture<String> stale = CompletableFuture.supplyAsync(() -> CallerLoadedCache.get(cache, "alice", key -> {
+			loading.countDown();
+			await(evicted);
+			return "old";
+		}));
+
+		assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+		cache.synchronous().invalidate("alice");
+		evicted.countDown();
+
+		assertThat(stale.get(5, TimeUnit.SECONDS)).isEqualTo("old"); // Its own caller still gets it
+		assertThat(CallerLoadedCache.get(cache, "alice", key -> "new")).isEqualTo("new");
+		assertThat(CallerLoadedCache.get(cache, "alice", key -> "newer")).isEqualTo("new");
+	}
+
+	@Test
+	void concurrentMissesShareOneLoad() throws Exception {
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> CallerLoadedCache.get(cache, "bob", key -> {
+			loads.incrementAndGet();
+			await(release);
+			return "value";
+		}));
+		while (cache.getIfPresent("bob") == null) {
+			Thread.onSpinWait();
+		}
+		CompletableFuture<String> second = CompletableFuture.supplyAsync(
+				() -> CallerLoadedCache.get(cache, "bob", key -> "other"));
+		release.countDown();
+
+		assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+		assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+		assertThat(loads).hasValue(1);
+	}
+
+	@Test
+	void failedLoadIsRethrownAndNotCached() {
+		assertThatThrownBy(() -> CallerLoadedCache.get(cache, "carol", key -> {
+			throw new IllegalStateException("not found");
+		})).isInstanceOf(IllegalStateException.class);
+
+		assertThat(CallerLoadedCache.get(cache, "carol", key -> "loaded")).isEqualTo("loaded");
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package com.oredata.banking_api.config.security;
+
+import com.oredata.banking_api.model.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtAuthenticationFilterTests {
+
+	private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private JwtService jwtService;
+	private JwtAuthenticationFilter filter;
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		jwtService = new JwtService(SECRET, 100);
+		user = User.builder().username("alice").password("secret").email("alice@oredata.com").build();
+		UserDetailsCache users = new UserDetailsCache(username -> {
+			if (!username.equals(user.getUsername())) {
+				throw new UsernameNotFoundException(username);
+			}
+			return user;
+		}, meterRegistry, Duration.ofMinutes(5), 100);
+		filter = new JwtAuthenticationFilter(jwtService, users, meterRegistry);
+	}
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void authenticatesAValidToken() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+
+		filter.doFilter(request(jwtService.generateToken(user)), response, chain);
+
+		assertThat(chain.getRequest()).isNotNull();
+		assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo("alice");
+		assertThat(failures("invalid")).isZero();
+	}
+
+	@Test
+	void rejectsTamperedTokensAndUnknownUsers() throws Exception {
+		String token = jwtService.generateToken(user);
+		String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+		String unknown = jwtService.generateToken(User.builder().username("mallory").password("x").email("m@x").build());
+
+		for (String jwt : new String[] { tampered, unknown, "" }) {
+			MockHttpServletResponse response = new MockHttpServletResponse();
+			MockFilterChain chain = new MockFilterChain();
+
+			filter.doFilter(request(jwt), response, chain);
+
+			assertThat(response.getStatus()).isEqualTo(401);
+			assertThat(chain.getRequest()).isNull();
+		}
+		assertThat(failures("invalid")).isEqualTo(3);
+	}
+
+	// A failure further down the chain is the application's, not a token failure
+	@Test
+	void downstreamExceptionsPropagateAndAreNotCounted() {
+		FilterChain failing = (request, response) -> {
+			throw new IllegalStateException("controller failed");
+		};
+
+		assertThatThrownBy(() -> filter.doFilter(request(jwtService.generateToken(user)), new MockHttpServletResponse(), failing))
+				.isInstanceOf(IllegalStateException.class);
+		assertThat(failures("invalid")).isZero();
+	}
+
+	private static MockHttpServletRequest request(String jwt) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/accounts");
+		request.addHeader("Authorization", "Bearer " + jwt);
+		return request;
+	}
+
+	private double failures(String reason) {
+		return meterRegistry.counter("banking.jwt.failures", "reason", reason).count();
+	}
+}
@@ -0,0 +1,47 @@
+package com.oredata.banking_api.config.security;
+
+import com.oredata.banking_api.model.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtServiceTests {
+
+	private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+	private JwtService jwtService;
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		jwtService = new JwtService(SECRET, 100);
+		user = User.builder().username("alice").password("secret").email("alice@oredata.com").build();
+	}
+
+	@Test
+	void parsesTokenOnceAndReusesVerifiedClaims() {
+		String token = jwtService.generateToken(user);
+
+		Claims first = jwtService.parseToken(token);
+		Claims second = jwtService.parseToken(token);
+
+		assertThat(first.getSubject()).isEqualTo("alice");
+		assertThat(second).isSameAs(first);
+		assertThat(jwtService.isTokenValid(token, user)).isTrue();
+	}
+
+	@Test
+	void rejectsTamperedTokenEvenWhenOriginalIsCached() {
+		String token = jwtService.generateToken(user);
+		jwtService.parseToken(token);
+
+		String tampered = token.substring(0, token.length() - 2)
+				+ (token.endsWith("AA") ? "BB" : "AA");
+
+		assertThatThrownBy(() -> jwtService.parseToken(tampered)).isInstanceOf(JwtException.class);
+	}
+}
@@ -0,0 +1,47 @@
+package com.oredata.banking_api.config.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@AutoConfigureObservability // Tests export no metrics by default
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = "management.server.port=0")
+class ManagementPortTests {
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@LocalServerPort
+	private int serverPort;
+
+	@LocalManagementPort
+	private int managementPort;
+
+	@Test
+	void servesTheScrapeOnTheManagementPortWithoutAToken() {
+		ResponseEntity<String> scrape = get(managementPort, "/actuator/prometheus");
+
+		assertThat(scrape.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(scrape.getBody()).contains("application=\"banking-api\"");
+		assertThat(get(managementPort, "/actuator/health").getStatusCode()).isEqualTo(HttpStatus.OK);
+	}
+
+	@Test
+	void keepsTheActuatorClosedOnTheApiPort() {
+		assertThat(get(serverPort, "/actuator/prometheus").getStatusCode().is2xxSuccessful()).isFalse();
+		assertThat(get(serverPort, "/actuator/health").getStatusCode().is2xxSuccessful()).isFalse();
+	}
+
+	private ResponseEntity<String> get(int port, String path) {
+		return restTemplate.getForEntity("http://localhost:" + port + path, String.class);
+	}
+}
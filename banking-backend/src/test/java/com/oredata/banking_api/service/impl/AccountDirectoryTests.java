@@ -0,0 +1,89 @@
+package com.oredata.banking_api.service.impl;
+
+import com.oredata.banking_api.TestAccounts;
+import com.oredata.banking_api.exception.ResourceNotFoundException;
+import com.oredata.banking_api.model.entity.Account;
+import com.oredata.banking_api.model.entity.User;
+import com.oredata.banking_api.repository.AccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class AccountDirectoryTests {
+
+	@Autowired
+	private ApplicationContext context;
+
+	@Autowired
+	private AccountDirectory accountDirectory;
+
+	@Autowired
+	private AccountNumberGenerator numberGenerator;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private TestAccounts testAccounts;
+	private User user;
+	private Account account;
+
+	@BeforeEach
+	void setUp() {
+		testAccounts = new TestAccounts(context);
+		user = testAccounts.user();
+		account = testAccounts.account(user, "0.00");
+	}
+
+	@Test
+	void resolvesKnownNumbersAndRejectsUnknownOnes() {
+		String unknown = numberGenerator.next();
+
+		assertThat(accountDirectory.resolve(account.getNumber())).isEqualTo(account.getId());
+		assertThatThrownBy(() -> accountDirectory.resolve(unknown)).isInstanceOf(ResourceNotFoundException.class);
+		assertThatThrownBy(() -> accountDirectory.resolve("12345")).isInstanceOf(IllegalArgumentException.class);
+		assertThat(accountDirectory.resolveAll(List.of(account.getNumber(), unknown)))
+				.containsExactly(Map.entry(account.getNumber(), account.getId()));
+	}
+
+	// As if another instance had opened the account: the miss is checked in the database and then cached
+	@Test
+	void findsAccountsItWasNotToldAbout() {
+		accountDirectory.remove(account.getNumber());
+
+		assertThat(accountDirectory.resolve(account.getNumber())).isEqualTo(account.getId());
+		jdbcTemplate.update("DELETE FROM accounts WHERE id = ?", account.getId());
+		assertThat(accountDirectory.resolveAll(List.of(account.getNumber())))
+				.containsEntry(account.getNumber(), account.getId());
+	}
+
+	@Test
+	void forgetsRemovedNumbers() {
+		jdbcTemplate.update("DELETE FROM accounts WHERE id = ?", account.getId());
+		accountDirectory.remove(account.getNumber());
+
+		assertThatThrownBy(() -> accountDirectory.resolve(account.getNumber()))
+				.isInstanceOf(ResourceNotFoundException.class);
+		assertThat(accountDirectory.resolveAll(List.of(account.getNumber()))).isEmpty();
+	}
+
+	@Test
+	void singleNodeDirectoryTrustsItsMisses() {
+		AccountDirectory singleNode = new AccountDirectory(context.getBean(AccountRepository.class),
+				context.getBean(PlatformTransactionManager.class), true);
+
+		assertThatThrownBy(() -> singleNode.resolve(account.getNumber())).isInstanceOf(ResourceNotFoundException.class);
+		singleNode.add(account.getNumber(), account.getId(), user.getId());
+		assertThat(singleNode.resolve(account.getNumber())).isEqualTo(account.getId());
+	}
+}
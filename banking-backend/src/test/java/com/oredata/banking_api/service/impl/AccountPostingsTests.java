@@ -0,0 +1,163 @@
+package com.oredata.banking_api.service.impl;
+
+import com.oredata.banking_api.TestAccounts;
+import com.oredata.banking_api.dto.requestDto.TransactionCursor;
+import com.oredata.banking_api.dto.requestDto.TransactionDto;
+import com.oredata.banking_api.dto.responseDto.TransactionResponseDto;
+import com.oredata.banking_api.model.entity.Account;
+import com.oredata.banking_api.model.entity.User;
+import com.oredata.banking_api.repository.AccountPostingRepository;
+import com.oredata.banking_api.repository.TransactionRepository;
+import com.oredata.banking_api.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class AccountPostingsTests {
+
+	@Autowired
+	private ApplicationContext context;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private DataSource dataSource;
+
+	private TestAccounts testAccounts;
+	private User user;
+	private Account alice;
+	private Account bob;
+
+	@BeforeEach
+	void setUp() {
+		testAccounts = new TestAccounts(context);
+		user = testAccounts.user();
+		alice = testAccounts.account(user, "0.00");
+		bob = testAccounts.account(user, "0.00");
+	}
+
+	@Test
+	void historyListsEveryTransactionOfTheAccountAndPostingsAddUpToTheBalance() {
+		transactionService.deposit(alice.getId(), new BigDecimal("50.00"));
+		transactionService.withdraw(alice.getId(), new BigDecimal("5.00"));
+		transactionService.transferFunds(transfer(alice, bob, "20.00"));
+		transactionService.transferFunds(transfer(bob, alice, "7.00"));
+		transactionService.deposit(bob.getId(), new BigDecimal("1.00"));
+
+		assertThat(transactionService.getAccountHistory(alice.getId()))
+				.extracting(TransactionResponseDto::getId)
+				.containsExactlyElementsOf(jdbcTemplate.queryForList(
+						"SELECT id FROM transactions WHERE from_account_id = ? OR to_account_id = ? "
+								+ "ORDER BY transaction_date DESC, id DESC",
+						Long.class, alice.getId(), alice.getId()));
+		assertThat(postingsTotal(alice)).isEqualByComparingTo(testAccounts.balance(alice)).isEqualByComparingTo("32.00");
+		assertThat(postingsTotal(bob)).isEqualByComparingTo(testAccounts.balance(bob)).isEqualByComparingTo("14.00");
+	}
+
+	// Pages after the first are bounded by the cursor's date; rows with the same date are split by id
+	@Test
+	void historyPagesWalkTheWholeHistoryInOrder() {
+		for (int i = 1; i <= 5; i++) {
+			transactionService.deposit(alice.getId(), new BigDecimal(i));
+		}
+		List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM transactions WHERE to_account_id = ? ORDER BY id",
+				Long.class, alice.getId());
+		jdbcTemplate.update("UPDATE transactions SET transaction_date = (SELECT transaction_date FROM transactions WHERE id = ?) "
+				+ "WHERE id IN (?, ?)", ids.get(1), ids.get(2), ids.get(3));
+		jdbcTemplate.update("UPDATE account_postings SET posted_at = (SELECT transaction_date FROM transactions WHERE id = ?) "
+				+ "WHERE transaction_id IN (?, ?)", ids.get(1), ids.get(2), ids.get(3));
+
+		List<Long> paged = new ArrayList<>();
+		TransactionCursor cursor = null;
+		Slice<TransactionResponseDto> page;
+		do {
+			page = transactionService.getAccountHistoryPage(alice.getId(), cursor, 2);
+			page.forEach(row -> paged.add(row.getId()));
+			TransactionResponseDto last = page.getContent().get(page.getNumberOfElements() - 1);
+			cursor = new TransactionCursor(last.getTransactionDate(), last.getId());
+		} while (page.hasNext());
+
+		assertThat(paged).hasSize(5).containsExactlyElementsOf(transactionService.getAccountHistory(alice.getId())
+				.stream().map(TransactionResponseDto::getId).toList());
+	}
+
+	// The Flyway backfill (V3) and the job write the same postings as the application (AccountPosting.of)
+	@Test
+	void migrationAndBackfillJobCreateTheSamePostingsForLegacyTransactions() {
+		List<Long> migrated = legacyTransactions(alice, bob);
+		ResourceDatabasePopulator migration = new ResourceDatabasePopulator(
+				new ClassPathResource("db/migration/V3__backfill_account_postings.sql"));
+		migration.execute(dataSource);
+		migration.execute(dataSource);
+
+		Account carol = testAccounts.account(user, "0.00");
+		Account dave = testAccounts.account(user, "0.00");
+		List<Long> backfilled = legacyTransactions(carol, dave);
+		new AccountPostingBackfill(context.getBean(TransactionRepository.class),
+				context.getBean(AccountPostingRepository.class),
+				context.getBean(PlatformTransactionManager.class), 2).run();
+
+		assertThat(postings(migrated, alice)).containsExactly("x -20.00", "x -5.00", "x 50.00", "y 0.00", "y 20.00")
+				.isEqualTo(postings(backfilled, carol));
+		assertThat(transactionService.getAccountHistory(alice.getId()))
+				.extracting(TransactionResponseDto::getId)
+				.containsExactlyInAnyOrderElementsOf(migrated.subList(0, 3)); // Not bob's transfer to himself
+	}
+
+	// Rows as an older version wrote them: transactions only, no postings
+	private List<Long> legacyTransactions(Account x, Account y) {
+		return List.of(
+				legacy("DEPOSIT", x, x, "50.00"),
+				legacy("TRANSFER", x, y, "20.00"),
+				legacy("WITHDRAWAL", x, x, "5.00"),
+				legacy("TRANSFER", y, y, "3.00"));
+	}
+
+	private Long legacy(String type, Account from, Account to, String amount) {
+		// nextval reserves a whole block of ids (INCREMENT BY 50), the application never hands out this one
+		Long id = jdbcTemplate.queryForObject("SELECT nextval('transactions_seq')", Long.class);
+		jdbcTemplate.update("INSERT INTO transactions (id, amount, status, transaction_date, type, from_account_id, "
+				+ "to_account_id) VALUES (?, ?, 'SUCCESS', localtimestamp, ?, ?, ?)",
+				id, new BigDecimal(amount), type, from.getId(), to.getId());
+		return id;
+	}
+
+	// "<x|y> <amount>" per posting of the transactions, x being the given account
+	private List<String> postings(List<Long> transactionIds, Account x) {
+		return jdbcTemplate.queryForList("SELECT CASE WHEN account_id = ? THEN 'x ' ELSE 'y ' END || amount "
+				+ "FROM account_postings WHERE transaction_id = ANY (?) ORDER BY 1",
+				String.class, x.getId(), transactionIds.toArray(new Long[0]));
+	}
+
+	private BigDecimal postingsTotal(Account account) {
+		return jdbcTemplate.queryForObject("SELECT SUM(amount) FROM account_postings WHERE account_id = ?",
+				BigDecimal.class, account.getId());
+	}
+
+	private static TransactionDto transfer(Account from, Account to, String amount) {
+		TransactionDto dto = new TransactionDto();
+		dto.setSourceAccountId(from.getId());
+		dto.setTargetAccountId(to.getId());
+		dto.setAmount(new BigDecimal(amount));
+		return dto;
+	}
+}
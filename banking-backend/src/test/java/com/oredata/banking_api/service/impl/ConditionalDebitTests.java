@@ -0,0 +1,108 @@
+package com.oredata.banking_api.service.impl;
+
+import com.oredata.banking_api.TestAccounts;
+import com.oredata.banking_api.dto.requestDto.TransactionDto;
+import com.oredata.banking_api.exception.InsufficientBalanceException;
+import com.oredata.banking_api.exception.ResourceNotFoundException;
+import com.oredata.banking_api.model.entity.Account;
+import com.oredata.banking_api.model.entity.User;
+import com.oredata.banking_api.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class ConditionalDebitTests {
+
+	@Autowired
+	private ApplicationContext context;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	private TestAccounts testAccounts;
+	private Account source;
+	private Account target;
+
+	@BeforeEach
+	void setUp() {
+		testAccounts = new TestAccounts(context);
+		User user = testAccounts.user();
+		source = testAccounts.account(user, "100.00");
+		target = testAccounts.account(user, "0.00");
+	}
+
+	@Test
+	void refusesDebitAboveBalanceAndLeavesItUnchanged() {
+		assertThatThrownBy(() -> transactionService.withdraw(source.getId(), new BigDecimal("100.01")))
+				.isInstanceOf(InsufficientBalanceException.class);
+
+		transactionService.withdraw(source.getId(), new BigDecimal("100.00"));
+		assertThat(testAccounts.balance(source)).isEqualByComparingTo("0.00");
+	}
+
+	@Test
+	void tellsMissingAccountFromInsufficientBalance() {
+		assertThatThrownBy(() -> transactionService.withdraw(UUID.randomUUID(), BigDecimal.ONE))
+				.isInstanceOf(ResourceNotFoundException.class);
+	}
+
+	@Test
+	void undoesTheDebitWhenTheReceiverIsMissing() {
+		TransactionDto dto = new TransactionDto();
+		dto.setSourceAccountId(source.getId());
+		dto.setTargetAccountId(UUID.randomUUID());
+		dto.setAmount(new BigDecimal("10.00"));
+
+		assertThatThrownBy(() -> transactionService.transferFunds(dto))
+				.isInstanceOf(ResourceNotFoundException.class);
+		assertThat(testAccounts.balance(source)).isEqualByComparingTo("100.00");
+	}
+
+	@Test
+	void concurrentDebitsNeverOverdraw() throws Exception {
+		TransactionDto dto = new TransactionDto();
+		dto.setSourceAccountId(source.getId());
+		dto.setTargetAccountId(target.getId());
+		dto.setAmount(new BigDecimal("10.00"));
+
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Callable<Boolean>> transfers = new ArrayList<>();
+			for (int i = 0; i < 20; i++) {
+				transfers.add(() -> {
+					try {
+						transactionService.transferFunds(dto);
+						return true;
+					} catch (InsufficientBalanceException e) {
+						return false;
+					}
+				});
+			}
+			int succeeded = 0;
+			for (Future<Boolean> result : pool.invokeAll(transfers)) {
+				succeeded += result.get() ? 1 : 0;
+			}
+
+			assertThat(succeeded).isEqualTo(10);
+			assertThat(testAccounts.balance(source)).isEqualByComparingTo("0.00");
+			assertThat(testAccounts.balance(target)).isEqualByComparingTo("100.00");
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
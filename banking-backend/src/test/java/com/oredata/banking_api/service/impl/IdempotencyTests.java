@@ -0,0 +1,232 @@
+package com.oredata.banking_api.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oredata.banking_api.TestAccounts;
+import com.oredata.banking_api.dto.responseDto.TransactionResponseDto;
+import com.oredata.banking_api.exception.IdempotencyConflictException;
+import com.oredata.banking_api.exception.InsufficientBalanceException;
+import com.oredata.banking_api.exception.LedgerOutcomeUnknownException;
+import com.oredata.banking_api.exception.LedgerUnavailableException;
+import com.oredata.banking_api.mapper.TransactionMapper;
+import com.oredata.banking_api.model.entity.Account;
+import com.oredata.banking_api.model.entity.Transaction;
+import com.oredata.banking_api.model.entity.User;
+import com.oredata.banking_api.repository.IdempotencyRecordRepository;
+import com.oredata.banking_api.service.IdempotencyService;
+import com.oredata.banking_api.service.TransactionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+		"banking.idempotency.wait-timeout=500ms",
+		"banking.idempotency.claim-timeout=1s" })
+class IdempotencyTests {
+
+	@Autowired
+	private ApplicationContext context;
+
+	@Autowired
+	private IdempotencyService idempotencyService;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private IdempotencyRecordRepository idempotencyRecordRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private TransactionMapper transactionMapper;
+
+	private TestAccounts testAccounts;
+	private User user;
+	private Account account;
+	private String key;
+
+	@BeforeEach
+	void setUp() {
+		testAccounts = new TestAccounts(context);
+		user = testAccounts.user();
+		account = testAccounts.account(user, "100.00");
+		TestAccounts.authenticate(user);
+		key = UUID.randomUUID().toString();
+	}
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void repeatedKeyGetsTheFirstResponseAndMovesMoneyOnce() {
+		TransactionResponseDto first = idempotencyService.execute(key, "deposit", "10", deposit("10.00"));
+		TransactionResponseDto second = idempotencyService.execute(key, "deposit", "10", deposit("10.00"));
+
+		assertThat(second.getId()).isEqualTo(first.getId());
+		assertThat(testAccounts.balance(account)).isEqualByComparingTo("110.00");
+		// Stored with the deposit: other nodes replay it from the table
+		assertThat(jdbcTemplate.queryForObject("SELECT response FROM idempotency_keys WHERE id = ?", String.class,
+				IdempotencyServiceImpl.recordId(user.getUsername(), key))).contains("\"id\":" + first.getId());
+	}
+
+	// Usernames go up to 255 characters, keys to 100: the stored id has a fixed length
+	@Test
+	void acceptsTheLongestKeyOfALongUsername() {
+		String username = "u".repeat(218) + UUID.randomUUID();
+		jdbcTemplate.update("UPDATE users SET username = ? WHERE id = ?", username, user.getId());
+		user.setUsername(username);
+		TestAccounts.authenticate(user);
+		String longKey = "k".repeat(100);
+
+		TransactionResponseDto first = idempotencyService.execute(longKey, "deposit", "10", deposit("10.00"));
+		TransactionResponseDto second = idempotencyService.execute(longKey, "deposit", "10", deposit("10.00"));
+
+		assertThat(second.getId()).isEqualTo(first.getId());
+		assertThat(testAccounts.balance(account)).isEqualByComparingTo("110.00");
+	}
+
+	@Test
+	void refusesTheKeyForADifferentRequest() {
+		idempotencyService.execute(key, "deposit", "10", deposit("10.00"));
+
+		assertThatThrownBy(() -> idempotencyService.execute(key, "deposit", "20", deposit("20.00")))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThat(testAccounts.balance(account)).isEqualByComparingTo("110.00");
+	}
+
+	@Test
+	void concurrentDuplicatesMoveMoneyOnce() throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Callable<Long>> duplicates = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				duplicates.add(() -> {
+					TestAccounts.authenticate(user);
+					return idempotencyService.execute(key, "deposit", "10", deposit("10.00")).getId();
+				});
+			}
+			List<Long> ids = new ArrayList<>();
+			for (Future<Long> id : pool.invokeAll(duplicates)) {
+				ids.add(id.get());
+			}
+
+			assertThat(ids).hasSize(8).containsOnly(ids.get(0));
+			assertThat(testAccounts.balance(account)).isEqualByComparingTo("110.00");
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void failedOperationGivesTheKeyBack() {
+		assertThatThrownBy(() -> idempotencyService.execute(key, "withdraw", "150", withdraw("150.00")))
+				.isInstanceOf(InsufficientBalanceException.class);
+		transactionService.deposit(account.getId(), new BigDecimal("50.00"));
+
+		idempotencyService.execute(key, "withdraw", "150", withdraw("150.00"));
+		assertThat(testAccounts.balance(account)).isEqualByComparingTo("0.00");
+	}
+
+	@Test
+	void definiteLedgerRejectionGivesTheKeyBack() {
+		assertThatThrownBy(() -> idempotencyService.execute(key, "deposit", "10", () -> {
+			throw new LedgerUnavailableException("Ledger engine is overloaded, please retry");
+		})).isInstanceOf(LedgerUnavailableException.class);
+
+		idempotencyService.execute(key, "deposit", "10", deposit("10.00"));
+		assertThat(testAccounts.balance(account)).isEqualByComparingTo("110.00");
+	}
+
+	@Test
+	void unknownOutcomeKeepsTheKeyUntilTheClaimIsStale() {
+		assertThatThrownBy(() -> idempotencyService.execute(key, "deposit", "10", () -> {
+			throw new LedgerOutcomeUnknownException("The ledger did not confirm the operation in time");
+		})).isInstanceOf(LedgerOutcomeUnknownException.class);
+
+		assertThatThrownBy(() -> idempotencyService.execute(key, "deposit", "10", deposit("10.00")))
+				.isInstanceOf(IdempotencyConflictException.class);
+
+		// Nothing was committed under the claim: once it is older than claim-timeout it is taken over
+		jdbcTemplate.update("UPDATE idempotency_keys SET created_at = created_at - interval '2 minutes' WHERE id = ?",
+				IdempotencyServiceImpl.recordId(user.getUsername(), key));
+		idempotencyService.execute(key, "deposit", "10", deposit("10.00"));
+		assertThat(testAccounts.balance(account)).isEqualByComparingTo("110.00");
+	}
+
+	// The first request was only slow: a retry on another node takes its claim over, and the first one,
+	// reaching its commit afterwards, finds the claim gone and rolls back
+	@Test
+	void requestWhoseClaimWasTakenOverDoesNotCommit() throws Exception {
+		IdempotencyService otherNode = new IdempotencyServiceImpl(idempotencyRecordRepository, objectMapper,
+				transactionMapper, Duration.ofHours(24), 100, Duration.ofMillis(500), Duration.ofSeconds(1));
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch resume = new CountDownLatch(1);
+		ExecutorService pool = Executors.newSingleThreadExecutor();
+		try {
+			Future<TransactionResponseDto> slow = pool.submit(() -> {
+				TestAccounts.authenticate(user);
+				return idempotencyService.execute(key, "deposit", "10", () -> {
+					started.countDown();
+					await(resume);
+					return transactionService.deposit(account.getId(), new BigDecimal("10.00"));
+				});
+			});
+			assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+			Thread.sleep(1100); // Past claim-timeout
+
+			TransactionResponseDto retry = otherNode.execute(key, "deposit", "10", deposit("10.00"));
+			resume.countDown();
+
+			assertThatThrownBy(slow::get).hasCauseInstanceOf(IdempotencyConflictException.class);
+			assertThat(testAccounts.balance(account)).isEqualByComparingTo("110.00");
+			assertThat(idempotencyService.execute(key, "deposit", "10", deposit("10.00")).getId())
+					.isEqualTo(retry.getId());
+		} finally {
+			resume.countDown();
+			pool.shutdown();
+		}
+	}
+
+	private Supplier<Transaction> deposit(String amount) {
+		return () -> transactionService.deposit(account.getId(), new BigDecimal(amount));
+	}
+
+	private Supplier<Transaction> withdraw(String amount) {
+		return () -> transactionService.withdraw(account.getId(), new BigDecimal(amount));
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
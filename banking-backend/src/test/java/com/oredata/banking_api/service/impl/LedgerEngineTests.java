@@ -0,0 +1,210 @@
+package com.oredata.banking_api.service.impl;
+
+import com.oredata.banking_api.TestAccounts;
+import com.oredata.banking_api.dto.requestDto.TransactionDto;
+import com.oredata.banking_api.dto.responseDto.TransactionResponseDto;
+import com.oredata.banking_api.exception.IdempotencyConflictException;
+import com.oredata.banking_api.exception.InsufficientBalanceException;
+import com.oredata.banking_api.exception.LedgerUnavailableException;
+import com.oredata.banking_api.exception.ResourceNotFoundException;
+import com.oredata.banking_api.model.BatchTransferResult;
+import com.oredata.banking_api.model.entity.Account;
+import com.oredata.banking_api.model.entity.Transaction;
+import com.oredata.banking_api.model.entity.User;
+import com.oredata.banking_api.service.IdempotencyService;
+import com.oredata.banking_api.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+		"banking.ledger.engine.enabled=true",
+		"banking.ledger.engine.write-attempts=3",
+		"banking.ledger.engine.write-backoff=10ms" })
+class LedgerEngineTests {
+
+	private static final Duration WAIT = Duration.ofSeconds(5);
+
+	@Autowired
+	private ApplicationContext context;
+
+	@Autowired
+	private LedgerEngine engine;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private IdempotencyService idempotencyService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private TestAccounts testAccounts;
+	private User user;
+	private Account account;
+	private Account other;
+
+	@BeforeEach
+	void setUp() {
+		testAccounts = new TestAccounts(context);
+		user = testAccounts.user();
+		account = testAccounts.account(user, "0.00");
+		other = testAccounts.account(user, "0.00");
+	}
+
+	// Created after startup: all four wait for the same balance load and still run in order
+	@Test
+	void runsTheOperationsOfAnAccountInSubmissionOrder() {
+		Account funded = testAccounts.account(user, "10.00");
+		List<CompletableFuture<Transaction>> results = List.of(
+				engine.withdraw(funded.getId(), new BigDecimal("6.00")),
+				engine.withdraw(funded.getId(), new BigDecimal("5.00")),
+				engine.withdraw(funded.getId(), new BigDecimal("4.00")),
+				engine.deposit(funded.getId(), new BigDecimal("5.00")));
+
+		assertThat(results.get(0)).succeedsWithin(WAIT);
+		assertThat(results.get(1)).failsWithin(WAIT).withThrowableThat()
+				.withCauseInstanceOf(InsufficientBalanceException.class);
+		assertThat(results.get(2)).succeedsWithin(WAIT);
+		assertThat(results.get(3)).succeedsWithin(WAIT);
+		assertThat(testAccounts.balance(funded)).isEqualByComparingTo("5.00");
+	}
+
+	// A credit is only spendable once its batch committed: a debit of it submitted right behind
+	// it is refused, so rejecting the credit afterwards cannot leave the account negative
+	@Test
+	void rejectedCreditCannotHaveBeenSpent() {
+		transactionService.deposit(account.getId(), new BigDecimal("20.00"));
+
+		jdbcTemplate.execute("CREATE OR REPLACE FUNCTION reject_test_amount() RETURNS trigger LANGUAGE plpgsql AS "
+				+ "$$ BEGIN IF NEW.amount = 13.37 THEN RAISE EXCEPTION 'rejected by test'; END IF; RETURN NEW; END $$");
+		jdbcTemplate.execute("CREATE TRIGGER reject_test_amount BEFORE INSERT ON transactions "
+				+ "FOR EACH ROW EXECUTE FUNCTION reject_test_amount()");
+		try {
+			CompletableFuture<Transaction> credit = engine.transfer(account.getId(), other.getId(), new BigDecimal("13.37"));
+			CompletableFuture<Transaction> dependent = engine.withdraw(other.getId(), new BigDecimal("13.37"));
+
+			assertThat(dependent).failsWithin(WAIT).withThrowableThat()
+					.withCauseInstanceOf(InsufficientBalanceException.class);
+			assertThat(credit).failsWithin(WAIT).withThrowableThat()
+					.withCauseInstanceOf(LedgerUnavailableException.class);
+		} finally {
+			jdbcTemplate.execute("DROP TRIGGER IF EXISTS reject_test_amount ON transactions");
+			jdbcTemplate.execute("DROP FUNCTION IF EXISTS reject_test_amount()");
+		}
+
+		assertThat(testAccounts.balance(other)).isEqualByComparingTo("0.00");
+		assertThat(testAccounts.balance(account)).isEqualByComparingTo("20.00");
+		// Memory agrees: the refunded debit is spendable again, nothing else is
+		assertThatThrownBy(() -> transactionService.withdraw(other.getId(), new BigDecimal("0.01")))
+				.isInstanceOf(InsufficientBalanceException.class);
+		transactionService.withdraw(account.getId(), new BigDecimal("20.00"));
+	}
+
+	@Test
+	void failedBatchIsUndoneAndTheEngineKeepsRunning() {
+		transactionService.deposit(account.getId(), new BigDecimal("10.00"));
+
+		jdbcTemplate.execute("CREATE OR REPLACE FUNCTION reject_test_amount() RETURNS trigger LANGUAGE plpgsql AS "
+				+ "$$ BEGIN IF NEW.amount = 13.37 THEN RAISE EXCEPTION 'rejected by test'; END IF; RETURN NEW; END $$");
+		jdbcTemplate.execute("CREATE TRIGGER reject_test_amount BEFORE INSERT ON transactions "
+				+ "FOR EACH ROW EXECUTE FUNCTION reject_test_amount()");
+		try {
+			assertThatThrownBy(() -> transactionService.deposit(account.getId(), new BigDecimal("13.37")))
+					.isInstanceOf(LedgerUnavailableException.class);
+		} finally {
+			jdbcTemplate.execute("DROP TRIGGER IF EXISTS reject_test_amount ON transactions");
+			jdbcTemplate.execute("DROP FUNCTION IF EXISTS reject_test_amount()");
+		}
+
+		// The failed deposit is gone from memory too: it cannot be spent
+		assertThatThrownBy(() -> transactionService.withdraw(account.getId(), new BigDecimal("10.01")))
+				.isInstanceOf(InsufficientBalanceException.class);
+		transactionService.withdraw(account.getId(), new BigDecimal("10.00"));
+		assertThat(testAccounts.balance(account)).isEqualByComparingTo("0.00");
+	}
+
+	@Test
+	void accountDeletedBehindTheEngineFailsOnlyItsOwnOperations() {
+		// Loads the balance into memory without writing anything for the account
+		assertThatThrownBy(() -> transactionService.withdraw(account.getId(), BigDecimal.ONE))
+				.isInstanceOf(InsufficientBalanceException.class);
+		jdbcTemplate.update("DELETE FROM accounts WHERE id = ?", account.getId());
+
+		CompletableFuture<Transaction> orphan = engine.deposit(account.getId(), BigDecimal.ONE);
+		CompletableFuture<Transaction> sibling = engine.deposit(other.getId(), BigDecimal.ONE);
+
+		assertThat(orphan).failsWithin(WAIT).withThrowableThat()
+				.withCauseInstanceOf(ResourceNotFoundException.class);
+		assertThat(sibling).succeedsWithin(WAIT);
+		assertThat(testAccounts.balance(other)).isEqualByComparingTo("1.00");
+		// Evicted: the next operation asks the database again
+		assertThatThrownBy(() -> transactionService.deposit(account.getId(), BigDecimal.ONE))
+				.isInstanceOf(ResourceNotFoundException.class);
+	}
+
+	@Test
+	void acceptsOnlyBatchesThatContinueOnError() {
+		transactionService.deposit(account.getId(), new BigDecimal("10.00"));
+		TransactionDto transfer = new TransactionDto();
+		transfer.setSourceAccountId(account.getId());
+		transfer.setTargetAccountId(other.getId());
+		transfer.setAmount(new BigDecimal("4.00"));
+
+		assertThatThrownBy(() -> transactionService.transferBatch(List.of(transfer), false))
+				.isInstanceOf(IllegalArgumentException.class);
+		List<BatchTransferResult> results = transactionService.transferBatch(List.of(transfer, transfer, transfer), true);
+
+		assertThat(results).extracting(BatchTransferResult::isSuccess).containsExactly(true, true, false);
+		assertThat(testAccounts.balance(account)).isEqualByComparingTo("2.00");
+		assertThat(testAccounts.balance(other)).isEqualByComparingTo("8.00");
+	}
+
+	// A completion refusing its entry (key taken over) fails that entry only, the rest of the batch commits
+	@Test
+	void refusedCompletionFailsOnlyItsOwnEntry() {
+		CompletableFuture<Transaction> refused = TransactionCompletion.bind(transaction -> {
+			throw new IdempotencyConflictException("taken over");
+		}, () -> engine.deposit(account.getId(), new BigDecimal("3.00")));
+		CompletableFuture<Transaction> batchMate = engine.deposit(other.getId(), new BigDecimal("2.00"));
+
+		assertThat(refused).failsWithin(WAIT).withThrowableThat()
+				.withCauseInstanceOf(IdempotencyConflictException.class);
+		assertThat(batchMate).succeedsWithin(WAIT);
+		assertThat(testAccounts.balance(account)).isEqualByComparingTo("0.00");
+		assertThat(testAccounts.balance(other)).isEqualByComparingTo("2.00");
+		// The engine's view agrees: the refused deposit cannot be spent
+		assertThat(engine.withdraw(account.getId(), new BigDecimal("0.01"))).failsWithin(WAIT).withThrowableThat()
+				.withCauseInstanceOf(InsufficientBalanceException.class);
+	}
+
+	// The key's response is written by the journal batch that commits the deposit
+	@Test
+	void storesTheIdempotencyResponseWithTheJournalBatch() {
+		String key = UUID.randomUUID().toString();
+		TestAccounts.authenticate(user);
+		try {
+			TransactionResponseDto response = idempotencyService.execute(key, "deposit", "3",
+					() -> transactionService.deposit(account.getId(), new BigDecimal("3.00")));
+
+			assertThat(jdbcTemplate.queryForObject("SELECT response FROM idempotency_keys WHERE id = ?",
+					String.class, IdempotencyServiceImpl.recordId(user.getUsername(), key))).contains("\"id\":" + response.getId());
+		} finally {
+			SecurityContextHolder.clearContext();
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package com.oredata.banking_api.service.impl;
+
+import com.oredata.banking_api.TestAccounts;
+import com.oredata.banking_api.config.security.JwtService;
+import com.oredata.banking_api.dto.requestDto.RefreshTokenRequestDto;
+import com.oredata.banking_api.dto.responseDto.LoginResponseDto;
+import com.oredata.banking_api.exception.InvalidRefreshTokenException;
+import com.oredata.banking_api.model.entity.User;
+import com.oredata.banking_api.service.RefreshTokenService;
+import com.oredata.banking_api.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class RefreshTokenTests {
+
+	@Autowired
+	private ApplicationContext context;
+
+	@Autowired
+	private RefreshTokenService refreshTokenService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private JwtService jwtService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		user = new TestAccounts(context).user();
+	}
+
+	@Test
+	void refreshRotatesTheTokenAndSignsANewAccessToken() {
+		String login = refreshTokenService.issue(user);
+
+		LoginResponseDto renewed = userService.refresh(request(login));
+
+		assertThat(renewed.getUserId()).isEqualTo(user.getId());
+		assertThat(jwtService.extractUsername(renewed.getToken())).isEqualTo(user.getUsername());
+		assertThat(renewed.getRefreshToken()).isNotEqualTo(login);
+		// The successor is good for the next refresh
+		assertThat(userService.refresh(request(renewed.getRefreshToken())).getRefreshToken())
+				.isNotEqualTo(renewed.getRefreshToken());
+	}
+
+	// The old token came back after its rotation: it was copied, both holders are logged out
+	@Test
+	void replayedTokenRevokesItsWholeLogin() {
+		String stolen = refreshTokenService.issue(user);
+		String otherLogin = refreshTokenService.issue(user);
+		String successor = refreshTokenService.rotate(stolen).refreshToken();
+
+		assertThatThrownBy(() -> refreshTokenService.rotate(stolen)).isInstanceOf(InvalidRefreshTokenException.class);
+		assertThatThrownBy(() -> refreshTokenService.rotate(successor)).isInstanceOf(InvalidRefreshTokenException.class);
+		// Only the family of the replayed token
+		assertThat(refreshTokenService.rotate(otherLogin).username()).isEqualTo(user.getUsername());
+	}
+
+	@Test
+	void logoutRevokesTheLogin() {
+		String login = refreshTokenService.issue(user);
+		String successor = refreshTokenService.rotate(login).refreshToken();
+
+		userService.logout(request(successor));
+		userService.logout(request("unknown")); // Ignored
+
+		assertThatThrownBy(() -> refreshTokenService.rotate(successor)).isInstanceOf(InvalidRefreshTokenException.class);
+		assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM refresh_tokens WHERE user_id = ?",
+				Integer.class, user.getId())).isZero();
+	}
+
+	@Test
+	void rejectsExpiredTokens() {
+		String login = refreshTokenService.issue(user);
+		jdbcTemplate.update("UPDATE refresh_tokens SET expires_at = now() - interval '1 minute' WHERE user_id = ?",
+				user.getId());
+
+		assertThatThrownBy(() -> refreshTokenService.rotate(login)).isInstanceOf(InvalidRefreshTokenException.class);
+	}
+
+	private static RefreshTokenRequestDto request(String refreshToken) {
+		RefreshTokenRequestDto dto = new RefreshTokenRequestDto();
+		dto.setRefreshToken(refreshToken);
+		return dto;
+	}
+}
@@ -0,0 +1,177 @@
+package com.oredata.banking_api.service.impl;
+
+import com.oredata.banking_api.TestAccounts;
+import com.oredata.banking_api.dto.requestDto.AccountDto;
+import com.oredata.banking_api.dto.requestDto.TransactionDto;
+import com.oredata.banking_api.model.entity.Account;
+import com.oredata.banking_api.model.entity.User;
+import com.oredata.banking_api.repository.AccountRepository;
+import com.oredata.banking_api.service.AccountService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class StripedBalancesTests {
+
+	@Autowired
+	private ApplicationContext context;
+
+	@Autowired
+	private AccountService accountService;
+
+	// Without the retry layer: a deadlock must surface, not be retried away
+	@Autowired
+	private TransactionServiceImpl transactionService;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private TestAccounts testAccounts;
+	private Account hot;
+	private Account other;
+
+	@BeforeEach
+	void setUp() {
+		testAccounts = new TestAccounts(context);
+		User user = testAccounts.user();
+		TestAccounts.authenticate(user);
+		hot = testAccounts.account(user, "10.00");
+		other = testAccounts.account(user, "0.00");
+		accountService.promoteToHotAccount(hot.getId(), 4);
+	}
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void creditsGoToBucketsAndCountInTheBalance() {
+		for (int i = 0; i < 8; i++) {
+			transactionService.deposit(hot.getId(), new BigDecimal("5.00"));
+		}
+
+		Account account = accountRepository.findById(hot.getId()).orElseThrow();
+		assertThat(account.getBalance()).isEqualByComparingTo("10.00");
+		assertThat(account.getAvailableBalance()).isEqualByComparingTo("50.00");
+		assertThat(bucketBalances()).hasSize(4);
+	}
+
+	@Test
+	void debitAboveTheMainBalanceDrainsTheBuckets() {
+		for (int i = 0; i < 4; i++) {
+			transactionService.deposit(hot.getId(), new BigDecimal("10.00"));
+		}
+
+		transactionService.withdraw(hot.getId(), new BigDecimal("45.00"));
+
+		Account account = accountRepository.findById(hot.getId()).orElseThrow();
+		assertThat(account.getAvailableBalance()).isEqualByComparingTo("5.00");
+		assertThat(bucketBalances()).allSatisfy(balance -> assertThat(balance).isEqualByComparingTo("0.00"));
+	}
+
+	@Test
+	void demoteFoldsTheBucketsBackIntoTheMainBalance() {
+		transactionService.deposit(hot.getId(), new BigDecimal("15.00"));
+
+		accountService.demoteHotAccount(hot.getId());
+
+		Account account = accountRepository.findById(hot.getId()).orElseThrow();
+		assertThat(account.getStripes()).isZero();
+		assertThat(account.getBalance()).isEqualByComparingTo("25.00");
+		assertThat(bucketBalances()).isEmpty();
+	}
+
+	@Test
+	void renameKeepsHotModeAndBucketMoney() {
+		transactionService.deposit(hot.getId(), new BigDecimal("15.00"));
+
+		AccountDto rename = new AccountDto();
+		rename.setName("Renamed");
+		Account renamed = accountService.updateAccount(hot.getId(), rename);
+
+		assertThat(renamed.getName()).isEqualTo("Renamed");
+		assertThat(renamed.getStripes()).isEqualTo(4);
+		assertThat(renamed.getAvailableBalance()).isEqualByComparingTo("25.00");
+	}
+
+	@Test
+	void entityLoadedBeforePromotionCannotWriteStripesBack() {
+		Account stale = accountRepository.findById(other.getId()).orElseThrow();
+		accountService.promoteToHotAccount(other.getId(), 2);
+
+		stale.setName("Stale");
+		assertThatThrownBy(() -> accountRepository.save(stale))
+				.isInstanceOf(ObjectOptimisticLockingFailureException.class);
+		assertThat(accountRepository.findStripesById(other.getId())).contains(2);
+	}
+
+	// Both sides drain the same buckets: the batch must take them in the single debit's order
+	// (buckets, then the account row), otherwise PostgreSQL reports a deadlock
+	@Test
+	void batchAndSingleDebitsDrainingTheSameAccountDoNotDeadlock() {
+		TransactionDto transfer = new TransactionDto();
+		transfer.setSourceAccountId(hot.getId());
+		transfer.setTargetAccountId(other.getId());
+		transfer.setAmount(new BigDecimal("150.00"));
+
+		for (int i = 0; i < 200; i++) {
+			long delayNanos = ThreadLocalRandom.current().nextLong(3_000_000);
+			// Main balance empty, no single bucket large enough: both debits take the drain path
+			jdbcTemplate.update("UPDATE accounts SET balance = 0 WHERE id = ?", hot.getId());
+			jdbcTemplate.update("UPDATE account_balance_buckets SET balance = 100 WHERE account_id = ?", hot.getId());
+
+			CountDownLatch start = new CountDownLatch(1);
+			CompletableFuture<Void> batch = CompletableFuture.runAsync(() -> {
+				await(start, delayNanos);
+				transactionService.transferBatch(List.of(transfer), false);
+			});
+			CompletableFuture<Void> single = CompletableFuture.runAsync(() -> {
+				await(start, 0);
+				transactionService.withdraw(hot.getId(), new BigDecimal("150.00"));
+			});
+			start.countDown();
+
+			CompletableFuture.allOf(batch, single).join();
+			assertThat(testAccounts.balance(hot)).isEqualByComparingTo("100.00");
+		}
+	}
+
+	private List<BigDecimal> bucketBalances() {
+		return jdbcTemplate.queryForList("SELECT balance FROM account_balance_buckets WHERE account_id = ?",
+				BigDecimal.class, hot.getId());
+	}
+
+	// The single debit locks the buckets, then the row: the batch starts a little later
+	// (0 to 3 ms, random per round) to hit the window in between
+	private static void await(CountDownLatch latch, long delayNanos) {
+		try {
+			latch.await();
+			long until = System.nanoTime() + delayNanos;
+			while (System.nanoTime() < until) {
+				Thread.onSpinWait();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package com.oredata.banking_api.service.impl;
+
+import com.oredata.banking_api.TestAccounts;
+import com.oredata.banking_api.dto.requestDto.TransactionDto;
+import com.oredata.banking_api.exception.InsufficientBalanceException;
+import com.oredata.banking_api.model.BatchTransferResult;
+import com.oredata.banking_api.model.entity.Account;
+import com.oredata.banking_api.model.entity.User;
+import com.oredata.banking_api.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class TransactionBatchTests {
+
+	@Autowired
+	private ApplicationContext context;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	private TestAccounts testAccounts;
+	private Account alice;
+	private Account bob;
+	private Account carol;
+
+	@BeforeEach
+	void setUp() {
+		testAccounts = new TestAccounts(context);
+		User user = testAccounts.user();
+		alice = testAccounts.account(user, "100.00");
+		bob = testAccounts.account(user, "0.00");
+		carol = testAccounts.account(user, "0.00");
+	}
+
+	@Test
+	void rollsBackEveryItemOnFirstFailureByDefault() {
+		List<TransactionDto> transfers = List.of(
+				transfer(alice, bob.getId(), "60.00"),
+				transfer(alice, carol.getId(), "60.00"));
+
+		assertThatThrownBy(() -> transactionService.transferBatch(transfers, false))
+				.isInstanceOf(InsufficientBalanceException.class);
+
+		assertThat(testAccounts.balance(alice)).isEqualByComparingTo("100.00");
+		assertThat(testAccounts.balance(bob)).isEqualByComparingTo("0.00");
+		assertThat(testAccounts.balance(carol)).isEqualByComparingTo("0.00");
+	}
+
+	@Test
+	void reportsFailedItemsAndKeepsTheRestWithContinueOnError() {
+		List<TransactionDto> transfers = List.of(
+				transfer(alice, bob.getId(), "60.00"),
+				transfer(alice, carol.getId(), "60.00"),
+				transfer(alice, UUID.randomUUID(), "1.00"),
+				transfer(bob, carol.getId(), "10.00"));
+
+		List<BatchTransferResult> results = transactionService.transferBatch(transfers, true);
+
+		assertThat(results).extracting(BatchTransferResult::getIndex).containsExactly(0, 1, 2, 3);
+		assertThat(results).extracting(BatchTransferResult::isSuccess).containsExactly(true, false, false, true);
+		assertThat(results.get(1).getError()).contains("Insufficient balance");
+		assertThat(results.get(2).getError()).contains("Receiver account not found");
+
+		assertThat(testAccounts.balance(alice)).isEqualByComparingTo("40.00");
+		assertThat(testAccounts.balance(bob)).isEqualByComparingTo("50.00");
+		assertThat(testAccounts.balance(carol)).isEqualByComparingTo("10.00");
+	}
+
+	@Test
+	void resolvesTargetsByAccountNumber() {
+		TransactionDto byNumber = transfer(alice, null, "25.00");
+		byNumber.setTargetAccountNumber(bob.getNumber());
+
+		List<BatchTransferResult> results = transactionService.transferBatch(List.of(byNumber), false);
+
+		assertThat(results.get(0).isSuccess()).isTrue();
+		assertThat(testAccounts.balance(alice)).isEqualByComparingTo("75.00");
+		assertThat(testAccounts.balance(bob)).isEqualByComparingTo("25.00");
+	}
+
+	private static TransactionDto transfer(Account from, UUID toId, String amount) {
+		TransactionDto dto = new TransactionDto();
+		dto.setSourceAccountId(from.getId());
+		dto.setTargetAccountId(toId);
+		dto.setAmount(new BigDecimal(amount));
+		return dto;
+	}
+}
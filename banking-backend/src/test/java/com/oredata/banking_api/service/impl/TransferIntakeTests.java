@@ -0,0 +1,118 @@
+package com.oredata.banking_api.service.impl;
+
+import com.oredata.banking_api.TestAccounts;
+import com.oredata.banking_api.dto.requestDto.TransactionDto;
+import com.oredata.banking_api.exception.AccessDeniedException;
+import com.oredata.banking_api.exception.ResourceNotFoundException;
+import com.oredata.banking_api.model.TransferOutcome;
+import com.oredata.banking_api.model.entity.Account;
+import com.oredata.banking_api.model.entity.User;
+import com.oredata.banking_api.service.TransferIntakeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class TransferIntakeTests {
+
+	@Autowired
+	private ApplicationContext context;
+
+	@Autowired
+	private TransferIntakeService intakeService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private TestAccounts testAccounts;
+	private User user;
+	private Account source;
+	private Account target;
+
+	@BeforeEach
+	void setUp() {
+		testAccounts = new TestAccounts(context);
+		user = testAccounts.user();
+		source = testAccounts.account(user, "100.00");
+		target = testAccounts.account(user, "0.00");
+		TestAccounts.authenticate(user);
+	}
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void acceptsOnlyTransfersFromTheCallersOwnAccounts() {
+		Account foreign = testAccounts.account(testAccounts.user(), "100.00");
+
+		assertThatThrownBy(() -> intakeService.submit(transfer(foreign.getId(), "1.00")))
+				.isInstanceOf(AccessDeniedException.class);
+		assertThatThrownBy(() -> intakeService.submit(transfer(UUID.randomUUID(), "1.00")))
+				.isInstanceOf(ResourceNotFoundException.class);
+		assertThat(testAccounts.balance(foreign)).isEqualByComparingTo("100.00");
+	}
+
+	// The database refuses every write for a while (as if it were down): the transfer stays queued
+	// instead of being stored as FAILED, and goes through once the database is back
+	@Test
+	void keepsTransfersQueuedWhileTheDatabaseFails() throws InterruptedException {
+		jdbcTemplate.execute("CREATE OR REPLACE FUNCTION reject_test_writes() RETURNS trigger LANGUAGE plpgsql AS "
+				+ "$$ BEGIN RAISE EXCEPTION 'database unavailable (test)'; END $$");
+		jdbcTemplate.execute("CREATE TRIGGER reject_test_writes BEFORE INSERT ON transfer_requests "
+				+ "FOR EACH ROW EXECUTE FUNCTION reject_test_writes()");
+		UUID transferId;
+		try {
+			transferId = intakeService.submit(transfer(source.getId(), "30.00"));
+			Thread.sleep(1500); // The worker tries at least once
+			assertThat(intakeService.getStatus(transferId).getStatus()).isEqualTo("PENDING");
+		} finally {
+			jdbcTemplate.execute("DROP TRIGGER IF EXISTS reject_test_writes ON transfer_requests");
+			jdbcTemplate.execute("DROP FUNCTION IF EXISTS reject_test_writes()");
+		}
+
+		assertThat(awaitOutcome(transferId).getStatus()).isEqualTo("SUCCESS");
+		assertThat(testAccounts.balance(source)).isEqualByComparingTo("70.00");
+		assertThat(testAccounts.balance(target)).isEqualByComparingTo("30.00");
+	}
+
+	@Test
+	void storesBusinessRejectionsAsFailed() throws InterruptedException {
+		UUID transferId = intakeService.submit(transfer(source.getId(), "100.01"));
+
+		TransferOutcome outcome = awaitOutcome(transferId);
+		assertThat(outcome.getStatus()).isEqualTo("FAILED");
+		assertThat(outcome.getError()).contains("Insufficient balance");
+	}
+
+	private TransferOutcome awaitOutcome(UUID transferId) throws InterruptedException {
+		for (int i = 0; i < 100; i++) {
+			TransferOutcome outcome = intakeService.getStatus(transferId);
+			if (!outcome.getStatus().equals("PENDING")) {
+				return outcome;
+			}
+			Thread.sleep(100);
+		}
+		throw new AssertionError("Transfer " + transferId + " still pending");
+	}
+
+	private TransactionDto transfer(UUID sourceId, String amount) {
+		TransactionDto dto = new TransactionDto();
+		dto.setSourceAccountId(sourceId);
+		dto.setTargetAccountId(target.getId());
+		dto.setAmount(new BigDecimal(amount));
+		return dto;
+	}
+}
@@ -0,0 +1,140 @@
+package com.oredata.banking_api.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransferJournalTests {
+
+	private static final int SEGMENT_SIZE = 4096;
+
+	@TempDir
+	private Path directory;
+
+	@Test
+	void replaysAcceptedTransfersThatAreNotDoneInAcceptanceOrder() {
+		TransferJournal journal = open(SEGMENT_SIZE);
+		journal.recover();
+		TransferJournal.Entry first = entry("1.00");
+		TransferJournal.Entry second = entry("2.00");
+		TransferJournal.Entry third = entry("3.00");
+		journal.append(first);
+		journal.append(second);
+		journal.append(third);
+		journal.markDone(List.of(second.transferId()));
+		journal.close();
+
+		assertThat(open(SEGMENT_SIZE).recover()).containsExactly(first, third);
+	}
+
+	// A crash in the middle of a record: everything before it is replayed, the record itself is not
+	@Test
+	void stopsReadingAtATornRecord() throws IOException {
+		TransferJournal journal = open(SEGMENT_SIZE);
+		journal.recover();
+		TransferJournal.Entry first = entry("1.00");
+		journal.append(first);
+		journal.append(entry("2.00"));
+		journal.close();
+
+		try (RandomAccessFile file = new RandomAccessFile(segments().get(0).toFile(), "rw")) {
+			int firstRecord = 8 + file.readInt();
+			file.seek(firstRecord + 20); // Inside the second record's payload
+			file.writeByte(0x7F);
+		}
+
+		TransferJournal reopened = open(SEGMENT_SIZE);
+		assertThat(reopened.recover()).containsExactly(first);
+		// Writing continues in a new segment, the torn one is kept as long as it holds a pending transfer
+		TransferJournal.Entry next = entry("4.00");
+		reopened.append(next);
+		reopened.close();
+		assertThat(open(SEGMENT_SIZE).recover()).containsExactly(first, next);
+	}
+
+	@Test
+	void deletesASegmentOnceEveryTransferInItIsDone() throws IOException {
+		TransferJournal journal = open(200); // Two records per segment
+		journal.recover();
+		List<TransferJournal.Entry> entries = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			TransferJournal.Entry entry = entry(i + ".00");
+			journal.append(entry);
+			entries.add(entry);
+		}
+		List<Path> segments = segments();
+		assertThat(segments).hasSize(3);
+
+		journal.markDone(List.of(entries.get(0).transferId()));
+		assertThat(segments.get(0)).exists();
+		journal.markDone(List.of(entries.get(1).transferId()));
+		assertThat(segments.get(0)).doesNotExist();
+		assertThat(segments.get(1)).exists();
+
+		journal.markDone(entries.subList(2, 6).stream().map(TransferJournal.Entry::transferId).toList());
+		journal.close();
+		assertThat(open(200).recover()).isEmpty();
+		assertThat(segments()).hasSize(1).doesNotContainAnyElementsOf(segments); // A new active segment
+	}
+
+	// Appends sharing forces (group commit), across segment rolls: every one returned is replayed
+	@Test
+	void concurrentAppendsAreAllReplayed() throws Exception {
+		TransferJournal journal = open(SEGMENT_SIZE);
+		journal.recover();
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Callable<TransferJournal.Entry>> appends = new ArrayList<>();
+			for (int i = 0; i < 200; i++) {
+				TransferJournal.Entry entry = entry(i + ".00");
+				appends.add(() -> {
+					journal.append(entry);
+					return entry;
+				});
+			}
+			Set<TransferJournal.Entry> appended = new HashSet<>();
+			for (Future<TransferJournal.Entry> entry : pool.invokeAll(appends)) {
+				appended.add(entry.get());
+			}
+			journal.close();
+
+			assertThat(segments()).hasSizeGreaterThan(1);
+			assertThat(open(SEGMENT_SIZE).recover()).containsExactlyInAnyOrderElementsOf(appended);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	private TransferJournal open(int segmentSize) {
+		return new TransferJournal(directory, segmentSize);
+	}
+
+	private List<Path> segments() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.sorted().toList();
+		}
+	}
+
+	private static TransferJournal.Entry entry(String amount) {
+		return new TransferJournal.Entry(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), null,
+				new BigDecimal(amount), "test", Instant.ofEpochMilli(System.currentTimeMillis()));
+	}
+}
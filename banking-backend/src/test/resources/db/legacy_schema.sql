@@ -0,0 +1,59 @@
+-- A database of the first release, before Flyway: the DDL Hibernate generated with
+-- ddl-auto=update for the original User, Account and Transaction entities, plus a few rows.
+-- SchemaMigrationTests upgrades it with the migrations in db/migration.
+
+create table users (
+    created_at timestamp(6) not null,
+    updated_at timestamp(6) not null,
+    id uuid not null,
+    email varchar(255) not null unique,
+    password varchar(255) not null,
+    username varchar(255) not null unique,
+    primary key (id)
+);
+
+create table accounts (
+    balance numeric(38,2) not null,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6) not null,
+    version bigint,
+    id uuid not null,
+    user_id uuid not null,
+    name varchar(255) not null,
+    number varchar(255) not null unique,
+    primary key (id)
+);
+
+create table transactions (
+    amount numeric(38,2) not null,
+    id bigint generated by default as identity,
+    transaction_date timestamp(6) not null,
+    from_account_id uuid not null,
+    to_account_id uuid not null,
+    status varchar(255) not null check (status in ('SUCCESS','FAILED')),
+    type varchar(255) check (type in ('TRANSFER','DEPOSIT','WITHDRAWAL')),
+    primary key (id)
+);
+
+alter table if exists accounts
+    add constraint FKnjuop33mo69pd79ctplkck40n foreign key (user_id) references users;
+alter table if exists transactions
+    add constraint FKhpjxdycqpl2ayb5fyav8cgjc4 foreign key (from_account_id) references accounts;
+alter table if exists transactions
+    add constraint FK9e2i2b4f6tqp0syqexhkqxphc foreign key (to_account_id) references accounts;
+
+insert into users (id, created_at, updated_at, email, password, username)
+values ('00000000-0000-0000-0000-000000000001', '2024-01-01 09:00', '2024-01-01 09:00',
+        'legacy@oredata.com', '{noop}secret', 'legacy');
+
+insert into accounts (id, created_at, updated_at, balance, name, number, version, user_id)
+values ('00000000-0000-0000-0000-00000000000a', '2024-01-01 09:00', '2024-03-02 10:00', 65.00, 'Main',
+        '1000000018', 3, '00000000-0000-0000-0000-000000000001'),
+       ('00000000-0000-0000-0000-00000000000b', '2024-01-01 09:00', '2024-03-02 10:00', 30.00, 'Savings',
+        '1000000026', 1, '00000000-0000-0000-0000-000000000001');
+
+-- January and March: the upgrade needs a partition for each month, and ids 1..3 from the identity column
+insert into transactions (amount, transaction_date, from_account_id, to_account_id, status, type)
+values (100.00, '2024-01-15 10:00', '00000000-0000-0000-0000-00000000000a', '00000000-0000-0000-0000-00000000000a', 'SUCCESS', 'DEPOSIT'),
+       (5.00, '2024-01-20 10:00', '00000000-0000-0000-0000-00000000000a', '00000000-0000-0000-0000-00000000000a', 'SUCCESS', 'WITHDRAWAL'),
+       (30.00, '2024-03-02 10:00', '00000000-0000-0000-0000-00000000000a', '00000000-0000-0000-0000-00000000000b', 'SUCCESS', 'TRANSFER');
@@ -1,6 +1,7 @@
 import { Link } from 'react-router-dom';
 import { Button } from '@/components/ui/button';
 import { useAuthStore } from '@/store/authStore';
+import AuthService from '@/services/authService';
 import { LogOut, Home, Send, History } from 'lucide-react';
 import { Avatar, AvatarFallback, AvatarImage } from '@/components/ui/avatar';
 import { DropdownMenu, DropdownMenuContent, DropdownMenuItem, DropdownMenuLabel, DropdownMenuSeparator, DropdownMenuTrigger } from '@/components/ui/dropdown-menu';
@@ -16,6 +17,11 @@ export const Navbar = () => {
   ];
 
   const handleLogout = () => {
+    // Revoke the refresh token on the server too (best effort, the local logout happens anyway)
+    const refreshToken = useAuthStore.getState().refreshToken;
+    if (refreshToken) {
+      AuthService.logout(refreshToken).catch(() => undefined);
+    }
     logout();
   };
 
@@ -1,6 +1,7 @@
-import axios from 'axios';
+import axios, { AxiosError, InternalAxiosRequestConfig } from 'axios';
 import { useAuthStore } from '@/store/authStore';
 import { toast } from '@/components/ui/use-toast';
+import { LoginResponse } from '@/types/auth';
 
 const api = axios.create({
   baseURL: import.meta.env.VITE_API_URL || 'http://localhost:8080/api', // Failover to localhost if env not set
@@ -27,13 +28,49 @@ api.interceptors.request.use((config) => {
   return Promise.reject(error);
 });
 
+/**
+ * TOKEN REFRESH:
+ * An expired token is renewed once with the refresh token (no password, no login page) and the
+ * request is sent again. Concurrent 401s share one refresh call: the refresh token is single use.
+ */
+let refreshing: Promise<string> | null = null;
+
+const refreshTokens = (): Promise<string> => {
+  if (!refreshing) {
+    const refreshToken = useAuthStore.getState().refreshToken;
+    // Plain axios: the expired token must not be attached
+    refreshing = axios.post<LoginResponse>(`${api.defaults.baseURL}/users/refresh`, { refreshToken })
+      .then((response) => {
+        useAuthStore.getState().setTokens(response.data.token, response.data.refreshToken);
+        return response.data.token;
+      })
+      .finally(() => {
+        refreshing = null;
+      });
+  }
+  return refreshing;
+};
+
 /**
  * RESPONSE INTERCEPTOR: 
  * Runs after a response is received from the Backend (e.g. Token Expired).
  */
 api.interceptors.response.use(
   (response) => response,
-  (error) => {
+  async (error: AxiosError) => {
+    const original = error.config as (InternalAxiosRequestConfig & { _retried?: boolean }) | undefined;
+    if (error.response?.status === 401 && original && !original._retried
+      && useAuthStore.getState().refreshToken && !original.url?.startsWith('/users/')) {
+      original._retried = true;
+      try {
+        const token = await refreshTokens();
+        original.headers.Authorization = `Bearer ${token}`;
+        return api(original);
+      } catch {
+        // Refresh token expired or revoked: fall through to the logout below
+      }
+    }
+
     // If 401 (Unauthorized) or 403 (Forbidden) error comes
     if (error.response?.status === 401 || error.response?.status === 403) {
       console.error("Authorization Error: Token expired or invalid. Logging out.");
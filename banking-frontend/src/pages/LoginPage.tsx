@@ -31,7 +31,7 @@ export const LoginPage = () => {
   const loginMutation = useMutation({
     mutationFn: AuthService.login,
     onSuccess: (data, variables) => {
-      loginStore(data.token, variables.username, data.userId);
+      loginStore(data.token, variables.username, data.userId, data.refreshToken);
       toast({
         title: 'Login Successful',
         description: `Welcome back, ${variables.username}!`,
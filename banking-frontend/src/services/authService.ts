@@ -8,6 +8,11 @@ const AuthService = {
     return response.data;
   },
 
+  // POST /api/users/logout (revokes the refresh token)
+  logout: async (refreshToken: string): Promise<void> => {
+    await api.post('/users/logout', { refreshToken });
+  },
+
   // POST /api/users/register
   register: async (data: RegisterFormValues): Promise<RegisterResponse> => {
     const response = await api.post<RegisterResponse>('/users/register', data);
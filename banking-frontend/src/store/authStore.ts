@@ -9,8 +9,10 @@ export interface AuthState {
     id: string; // userId added
   } | null;
   token: string | null;
+  refreshToken: string | null;
   isAuthenticated: boolean;
-  login: (token: string, username: string, userId: string) => void; // signature update
+  login: (token: string, username: string, userId: string, refreshToken: string) => void; // signature update
+  setTokens: (token: string, refreshToken: string) => void; // After a refresh
   logout: () => void;
 }
 
@@ -22,18 +24,24 @@ export const useAuthStore = create<AuthState>()(
       // Initial State
       user: null,
       token: null,
+      refreshToken: null,
       isAuthenticated: false,
 
       // Action (Method): Called when logged in
-      login: (token, username, userId) => set({
+      login: (token, username, userId, refreshToken) => set({
         token,
+        refreshToken,
         user: { username, id: userId },
         isAuthenticated: true
       }),
 
+      // Action (Method): Called when the token was renewed with the refresh token
+      setTokens: (token, refreshToken) => set({ token, refreshToken }),
+
       // Action (Method): Called when logged out
       logout: () => set({
         token: null,
+        refreshToken: null,
         user: null,
         isAuthenticated: false
       }),
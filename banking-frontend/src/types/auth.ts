@@ -32,4 +32,5 @@ export interface RegisterResponse {
 export interface LoginResponse {
   token: string;
   userId: string;
+  refreshToken: string; // Exchanged for a new pair when the token expires
 }
\ No newline at end of file